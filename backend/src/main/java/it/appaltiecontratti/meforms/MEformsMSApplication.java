@@ -1,5 +1,10 @@
 package it.appaltiecontratti.meforms;
 
+import it.appaltiecontratti.meforms.helpers.BasicMetadataConfig;
+import it.appaltiecontratti.meforms.helpers.NoticeExecutorConfig;
+import it.appaltiecontratti.meforms.helpers.NoticeRequestConfig;
+import it.appaltiecontratti.meforms.helpers.SdkCacheConfig;
+import it.appaltiecontratti.meforms.helpers.SdkSnapshotConfig;
 import it.appaltiecontratti.meforms.helpers.TedConfig;
 import it.appaltiecontratti.meforms.helpers.exclusion.ApplicationConfiguration;
 import it.appaltiecontratti.meforms.helpers.rendering.RenderConfig;
@@ -9,7 +14,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties({TedConfig.class, CvsConfig.class, RenderConfig.class, ApplicationConfiguration.class})
+@EnableConfigurationProperties({TedConfig.class, CvsConfig.class, RenderConfig.class, NoticeRequestConfig.class, NoticeExecutorConfig.class, SdkCacheConfig.class, SdkSnapshotConfig.class, BasicMetadataConfig.class, ApplicationConfiguration.class})
 public class MEformsMSApplication {
 
     public static void main(String[] args) {
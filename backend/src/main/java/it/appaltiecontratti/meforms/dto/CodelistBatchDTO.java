@@ -0,0 +1,23 @@
+package it.appaltiecontratti.meforms.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Risposta batch delle code lists: quelle cambiate (o non presenti nel client) per id, nell'ordine
+ * della richiesta, e gli id di quelle il cui ETag coincide con quello inviato dal client.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistBatchDTO {
+    private Map<String, CodelistBatchItemDTO> codelists;
+    private List<String> notModified;
+}
@@ -0,0 +1,21 @@
+package it.appaltiecontratti.meforms.dto;
+
+import it.appaltiecontratti.meforms.helpers.payload.JsonFragment;
+import lombok.*;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Code list di una risposta batch, con lo stesso contenuto dell'endpoint della singola code list.
+ * Il json e' quello della risposta della singola code list, copiato nella risposta cosi' com'e'.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistBatchItemDTO {
+    private String etag;
+    private JsonFragment codelist;
+}
@@ -0,0 +1,23 @@
+package it.appaltiecontratti.meforms.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Richiesta di piu' code lists nella stessa lingua. Per le code lists gia' presenti nel client si puo'
+ * indicare l'ETag ricevuto: se non sono cambiate non vengono restituite.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistBatchRequestDTO {
+    private List<String> codelistIds;
+    private Map<String, String> etags;      // codelistId -> ETag gia' presente nel client (opzionale)
+}
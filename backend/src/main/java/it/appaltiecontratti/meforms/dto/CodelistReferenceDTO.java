@@ -0,0 +1,20 @@
+package it.appaltiecontratti.meforms.dto;
+
+import lombok.*;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Riferimento a una code list: l'id e l'ETag della versione attuale, da inviare all'endpoint batch
+ * delle code lists per scaricare solo quelle non ancora presenti o cambiate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistReferenceDTO {
+    private String codelistId;
+    private String etag;
+}
@@ -0,0 +1,27 @@
+package it.appaltiecontratti.meforms.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Pagina di risultati della ricerca in una code list. Le righe hanno lo stesso formato di quelle
+ * dell'array "codes" della code list completa.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistSearchDTO {
+    private String codelistId;
+    private String query;
+    private int page;
+    private int size;
+    private int total;              // numero totale di righe trovate
+    private List<JsonNode> codes;
+}
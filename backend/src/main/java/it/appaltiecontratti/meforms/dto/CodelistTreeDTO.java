@@ -0,0 +1,24 @@
+package it.appaltiecontratti.meforms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Livello della gerarchia di una code list: i figli di un codice (o le radici) e il percorso dalla
+ * radice fino al codice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistTreeDTO {
+    private String codelistId;
+    private String parentCode;                  // null per le radici
+    private List<CodelistTreeNodeDTO> path;     // dalla radice fino a parentCode compreso
+    private List<CodelistTreeNodeDTO> children;
+}
@@ -0,0 +1,21 @@
+package it.appaltiecontratti.meforms.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Codice della gerarchia di una code list, con il numero di figli diretti e di discendenti.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CodelistTreeNodeDTO {
+    private JsonNode code;          // stessa riga dell'array "codes" della code list completa
+    private int childCount;
+    private int descendantCount;
+}
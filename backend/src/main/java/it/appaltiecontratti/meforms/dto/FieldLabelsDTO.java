@@ -0,0 +1,24 @@
+package it.appaltiecontratti.meforms.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Etichette tradotte di un field/group dell'SDK, indicizzate per id (es.: BT-01-notice).
+ * Un valore null indica che la traduzione non e' presente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class FieldLabelsDTO implements Serializable {
+
+    private String name;            // es.: Base giuridica della procedura
+    private String description;
+    private String hint;
+}
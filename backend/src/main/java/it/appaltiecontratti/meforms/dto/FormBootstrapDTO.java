@@ -0,0 +1,30 @@
+package it.appaltiecontratti.meforms.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Dati necessari all'apertura del form di un notice subtype in una lingua, in un'unica risposta:
+ * il contenuto del notice type, i soli fields e nodes usati, le relative traduzioni e i riferimenti
+ * alle code lists.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class FormBootstrapDTO {
+    private String sdkVersion;
+    private String noticeSubType;
+    private String langCode;
+    private JsonNode noticeType;                // notice-types/{noticeSubType}.json
+    private JsonNode fieldsJson;                // come "fieldsJson" di basic-meta-data?noticeSubType=
+    private Map<String, String> translations;   // come translations/{langCode}.json, solo per fields, nodes e groups usati
+    private List<CodelistReferenceDTO> codelists;
+}
@@ -0,0 +1,19 @@
+package it.appaltiecontratti.meforms.exceptions;
+
+import lombok.Getter;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ */
+@Getter
+public class NoticeTooLargeException extends RuntimeException {
+    private final long size;
+    private final long maxSize;
+
+    public NoticeTooLargeException(long size, long maxSize) {
+        super("Notice json too large: " + size + " bytes, max " + maxSize + " bytes");
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,26 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Configurazione della risposta "basic-meta-data" (fields.json e codelists.json dell'SDK), letta da
+ * "application.eforms.basicMetadata": il prefisso e' nella forma canonica richiesta da Spring.
+ */
+@ConfigurationProperties(prefix = "application.eforms.basic-metadata")
+@Data
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class BasicMetadataConfig {
+    // Proprieta' di fields e nodes non usate dal front-end, rimosse dalla risposta
+    private final List<String> excludedProperties;
+}
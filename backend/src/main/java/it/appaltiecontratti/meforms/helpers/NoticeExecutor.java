@@ -0,0 +1,102 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static it.appaltiecontratti.meforms.common.Constants.MDC_TRACE_ID;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Executor dedicato all'elaborazione dei notice (pulizia, modello concettuale e fisico, ordinamento,
+ * validazione XSD), che altrimenti verrebbe eseguita sull'event loop di Reactor Netty bloccando tutte
+ * le altre connessioni servite dallo stesso thread.
+ * </p>
+ *
+ * <p>
+ * La concorrenza e la coda sono limitate (vedi "application.xml.executor"): oltre la capacita' della coda
+ * le richieste vengono rifiutate con {@link java.util.concurrent.RejectedExecutionException}. Le metriche
+ * standard "executor.*" con tag name=notice riportano coda, task attivi e tempo di attesa ("executor.idle").
+ * </p>
+ */
+@Component
+@Slf4j
+public class NoticeExecutor {
+
+    private static final String EXECUTOR_NAME = "notice";
+
+    private final Scheduler scheduler;
+
+    public NoticeExecutor(final NoticeExecutorConfig config, final MeterRegistry meterRegistry) {
+        Validate.isTrue(config.getMaxConcurrency() > 0, "maxConcurrency must be positive");
+        Validate.isTrue(config.getQueueCapacity() > 0, "queueCapacity must be positive");
+
+        final ThreadFactory threadFactory = config.isVirtualThreads()
+                ? Thread.ofVirtual().name(EXECUTOR_NAME + "-", 0).factory()
+                : Thread.ofPlatform().name(EXECUTOR_NAME + "-", 0).daemon(true).factory();
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(config.getMaxConcurrency(),
+                config.getMaxConcurrency(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        this.scheduler = Schedulers.fromExecutorService(
+                ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME), EXECUTOR_NAME);
+
+        log.info("Notice executor: maxConcurrency={}, queueCapacity={}, virtualThreads={}",
+                config.getMaxConcurrency(), config.getQueueCapacity(), config.isVirtualThreads());
+    }
+
+    /**
+     * Esegue il task sull'executor, propagando l'MDC del chiamante e il trace id del contesto Reactor
+     * (vedi MDCFilter).
+     *
+     * @param task L'elaborazione bloccante del notice
+     * @return Il risultato del task, emesso dal thread dell'executor
+     */
+    public <T> Mono<T> submit(final Callable<T> task) {
+        Validate.notNull(task, "task is null");
+
+        // L'MDC va letto sul thread del chiamante, prima del cambio di thread
+        return Mono.deferContextual(ctx -> {
+            final Map<String, String> callerMdc = MDC.getCopyOfContextMap();
+            final String traceId = ctx.getOrDefault(MDC_TRACE_ID, null);
+            return Mono.fromCallable(() -> {
+                // Sostituisce l'MDC del thread, che non viene ripulito a fine task: i segnali a valle
+                // (es. i log di ResponseErrorHandler) vengono emessi sullo stesso thread
+                if (callerMdc != null) {
+                    MDC.setContextMap(callerMdc);
+                } else {
+                    MDC.clear();
+                }
+                if (traceId != null) {
+                    MDC.put(MDC_TRACE_ID, traceId);
+                }
+                return task.call();
+            }).subscribeOn(scheduler);
+        });
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,27 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Configurazione dell'executor dedicato alla generazione e validazione dell'XML dei notice.
+ */
+@ConfigurationProperties(prefix = "application.xml.executor")
+@Data
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class NoticeExecutorConfig {
+    // Numero massimo di notice elaborati contemporaneamente
+    private final int maxConcurrency;
+    // Numero massimo di notice in attesa, oltre il quale le richieste vengono rifiutate
+    private final int queueCapacity;
+    // Esegue l'elaborazione su virtual thread invece che su thread di piattaforma
+    private final boolean virtualThreads;
+}
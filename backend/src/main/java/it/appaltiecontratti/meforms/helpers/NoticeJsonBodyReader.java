@@ -0,0 +1,186 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.appaltiecontratti.meforms.exceptions.NoticeTooLargeException;
+import it.appaltiecontratti.meforms.util.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Lettura del json del notice dal body della richiesta. I {@link DataBuffer} ricevuti vengono passati
+ * man mano al parser non bloccante di Jackson e l'albero {@link ObjectNode} viene costruito direttamente
+ * dai token, senza accumulare il body in memoria ne' passare da una String.
+ * </p>
+ *
+ * <p>
+ * Se il Content-Length dichiarato supera la dimensione massima la richiesta viene rifiutata senza leggere
+ * il body, altrimenti la lettura si interrompe appena i byte ricevuti superano il limite.
+ * </p>
+ */
+@Component
+@Slf4j
+public class NoticeJsonBodyReader {
+
+    /**
+     * @param request La richiesta HTTP con il json del notice nel body
+     * @param maxSize La dimensione massima accettata per il body
+     * @return La root del modello visuale, {@link NoticeTooLargeException} se il body supera il limite
+     */
+    public Mono<ObjectNode> read(final ServerHttpRequest request, final DataSize maxSize) {
+        Validate.notNull(request, "request is null");
+        Validate.notNull(maxSize, "maxSize is null");
+
+        final long maxBytes = maxSize.toBytes();
+        final long contentLength = request.getHeaders().getContentLength();
+        if (contentLength > maxBytes) {
+            // Rifiuto anticipato, il body non viene letto
+            return Mono.error(new NoticeTooLargeException(contentLength, maxBytes));
+        }
+
+        return Mono.using(() -> new TreeReader(maxBytes),
+                reader -> request.getBody()
+                        .<Void>handle((buffer, sink) -> {
+                            try {
+                                reader.feed(buffer);
+                            } catch (IOException | RuntimeException e) {
+                                sink.error(e);
+                            }
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .then(Mono.fromCallable(reader::finish)),
+                TreeReader::close);
+    }
+
+    /**
+     * Parser non bloccante e costruzione dell'albero per un singolo body. Non e' thread-safe, i buffer
+     * vengono ricevuti in sequenza.
+     */
+    private static final class TreeReader {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final JsonNodeFactory nodeFactory = JsonUtils.getNodeFactory();
+        private final long maxBytes;
+
+        // Contenitori aperti, il primo e' quello corrente
+        private final Deque<ContainerNode<?>> containers = new ArrayDeque<>();
+        private String fieldName;
+        private JsonNode root;
+        private long readBytes;
+
+        TreeReader(final long maxBytes) throws IOException {
+            this.parser = JsonUtils.getStandardJacksonObjectMapper().getFactory().createNonBlockingByteBufferParser();
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.maxBytes = maxBytes;
+        }
+
+        void feed(final DataBuffer buffer) throws IOException {
+            try {
+                readBytes += buffer.readableByteCount();
+                if (readBytes > maxBytes) {
+                    throw new NoticeTooLargeException(readBytes, maxBytes);
+                }
+                try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                    while (iterator.hasNext()) {
+                        // Il parser non copia l'input: va consumato prima di rilasciare il buffer
+                        feeder.feedInput(iterator.next());
+                        readTokens();
+                    }
+                }
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        ObjectNode finish() throws IOException {
+            feeder.endOfInput();
+            readTokens();
+            if (root == null || !containers.isEmpty()) {
+                throw new JsonParseException(parser, "Unexpected end of notice json");
+            }
+            if (!root.isObject()) {
+                throw new JsonParseException(parser, "Notice json is not an object");
+            }
+            log.debug("Read notice json of {} bytes", readBytes);
+            return (ObjectNode) root;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                log.warn("Errore durante la chiusura del parser json", e);
+            }
+        }
+
+        private void readTokens() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT -> open(nodeFactory.objectNode());
+                    case START_ARRAY -> open(nodeFactory.arrayNode());
+                    case END_OBJECT, END_ARRAY -> containers.pop();
+                    case FIELD_NAME -> fieldName = parser.currentName();
+                    case VALUE_STRING -> add(nodeFactory.textNode(parser.getText()));
+                    case VALUE_NUMBER_INT -> add(readIntegralNumber());
+                    // Come ObjectMapper.readTree senza USE_BIG_DECIMAL_FOR_FLOATS
+                    case VALUE_NUMBER_FLOAT -> add(nodeFactory.numberNode(parser.getDoubleValue()));
+                    case VALUE_TRUE -> add(nodeFactory.booleanNode(true));
+                    case VALUE_FALSE -> add(nodeFactory.booleanNode(false));
+                    case VALUE_NULL -> add(nodeFactory.nullNode());
+                    default -> throw new JsonParseException(parser, "Unexpected token " + token);
+                }
+            }
+        }
+
+        private JsonNode readIntegralNumber() throws IOException {
+            return switch (parser.getNumberType()) {
+                case INT -> nodeFactory.numberNode(parser.getIntValue());
+                case LONG -> nodeFactory.numberNode(parser.getLongValue());
+                default -> nodeFactory.numberNode(parser.getBigIntegerValue());
+            };
+        }
+
+        private void open(final ContainerNode<?> container) throws IOException {
+            add(container);
+            containers.push(container);
+        }
+
+        private void add(final JsonNode node) throws IOException {
+            final ContainerNode<?> parent = containers.peek();
+            if (parent == null) {
+                if (root != null) {
+                    throw new JsonParseException(parser, "Unexpected content after the notice json");
+                }
+                root = node;
+            } else if (parent instanceof ObjectNode objectNode) {
+                // In caso di campi duplicati vale l'ultimo, come in ObjectMapper.readTree
+                objectNode.replace(fieldName, node);
+            } else {
+                ((ArrayNode) parent).add(node);
+            }
+        }
+    }
+}
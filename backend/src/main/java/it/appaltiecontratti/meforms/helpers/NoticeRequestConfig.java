@@ -0,0 +1,30 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Dimensione massima del json del notice accettata da ogni endpoint di generazione XML.
+ */
+@ConfigurationProperties(prefix = "application.xml.request")
+@Data
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class NoticeRequestConfig {
+    // Salvataggio senza validazione (json e xml)
+    private final DataSize saveMaxSize;
+    // Salvataggio con validazione XSD
+    private final DataSize xsdMaxSize;
+    // Salvataggio con validazione CVS
+    private final DataSize cvsMaxSize;
+    // Salvataggio e render PDF
+    private final DataSize renderMaxSize;
+}
@@ -0,0 +1,38 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Configurazione delle cache delle code lists e delle traduzioni dell'SDK, caricate su richiesta.
+ */
+@ConfigurationProperties(prefix = "application.eforms.cache")
+@Data
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class SdkCacheConfig {
+    // Memoria massima stimata delle code lists in cache
+    private final DataSize codelistsMaxSize;
+    // Memoria massima stimata delle traduzioni in cache
+    private final DataSize translationsMaxSize;
+    // Memoria massima delle definizioni dei notice types (notice-types/{noticeId}.json) gia' serializzate
+    private final DataSize noticeTypesMaxSize;
+    // Memoria massima delle risposte "basic-meta-data" gia' serializzate, per SDK e notice subtype
+    private final DataSize basicMetadataMaxSize;
+    // Memoria massima dei dati di apertura dei form gia' serializzati, per SDK, notice subtype e lingua
+    private final DataSize bootstrapMaxSize;
+    // Memoria massima dei sottoinsiemi delle traduzioni gia' serializzati (filtri per prefisso e notice subtype)
+    private final DataSize translationSubsetsMaxSize;
+    // Lingue caricate all'avvio per tutti gli SDK, le altre vengono caricate alla prima richiesta
+    private final List<String> prewarmLanguages;
+}
@@ -0,0 +1,25 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Configurazione dello snapshot precompilato dell'SDK (code lists, traduzioni, fields e notice types).
+ */
+@ConfigurationProperties(prefix = "application.eforms.snapshot")
+@Data
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class SdkSnapshotConfig {
+    // Usa e, se assente o non aggiornato, crea lo snapshot all'avvio
+    private final boolean enabled;
+    // Cartella degli snapshot, un file per versione SDK
+    private final String path;
+}
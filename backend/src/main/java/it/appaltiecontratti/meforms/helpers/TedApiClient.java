@@ -2,10 +2,12 @@ package it.appaltiecontratti.meforms.helpers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.channel.ChannelOption;
 import it.appaltiecontratti.meforms.dto.ProxyConfigDTO;
 import it.appaltiecontratti.meforms.exceptions.TedFailedException;
 import it.appaltiecontratti.meforms.helpers.validation.CsvValidationMode;
 import it.appaltiecontratti.meforms.util.JsonUtils;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
@@ -21,13 +23,16 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.transport.ProxyProvider;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Optional;
 
@@ -53,6 +58,12 @@ public class TedApiClient {
     private final ObjectMapper objectMapper;
     private final ProxyConfigDTO proxyConfig;
 
+    // Pool di connessioni e client condivisi, uno per endpoint TED
+    private final ConnectionProvider cvsConnectionProvider;
+    private final ConnectionProvider renderConnectionProvider;
+    private final WebClient cvsWebClient;
+    private final WebClient renderWebClient;
+
     /**
      * @param tedConfig   Config of TED services
      * @param proxyConfig The proxy configuration to be used for the HTTP client
@@ -61,6 +72,18 @@ public class TedApiClient {
         this.tedConfig = tedConfig;
         this.objectMapper = JsonUtils.getStandardJacksonObjectMapper();
         this.proxyConfig = proxyConfig;
+
+        final Optional<InetSocketAddress> proxyAddressOpt = resolveProxyAddress();
+        this.cvsConnectionProvider = buildConnectionProvider("ted-cvs");
+        this.renderConnectionProvider = buildConnectionProvider("ted-render");
+        this.cvsWebClient = buildWebClient(cvsConnectionProvider, proxyAddressOpt);
+        this.renderWebClient = buildWebClient(renderConnectionProvider, proxyAddressOpt);
+    }
+
+    @PreDestroy
+    public void dispose() {
+        cvsConnectionProvider.dispose();
+        renderConnectionProvider.dispose();
     }
 
     /**
@@ -74,6 +97,20 @@ public class TedApiClient {
         if (noticeXml == null || noticeXml.isEmpty()) {
             throw new RuntimeException("Expecting notice xml but it is blank.");
         }
+        return renderNoticeXml(noticeXml.getBytes(CHARSET), language);
+    }
+
+    /**
+     * Uses the RENDER API to render the notice, returns the response body.
+     *
+     * @param noticeXml The notice XML as UTF-8 bytes
+     * @param language  Language to generate the SVRL report, for example "en" for English
+     * @return The response body, XML as PDF in this case
+     */
+    public Flux<DataBuffer> renderNoticeXml(final byte[] noticeXml, final Optional<String> language) throws IOException {
+        if (noticeXml == null || noticeXml.length == 0) {
+            throw new RuntimeException("Expecting notice xml but it is blank.");
+        }
         final String noticeInBase64 = toBase64(noticeXml);
 
         final UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(this.tedConfig.getRender().getUrl()).path(RENDER_API_V2_RENDERING);
@@ -91,7 +128,7 @@ public class TedApiClient {
             jsonPayload.put("summary", false);
         }
 
-        return httpPostToFluxResponse(postUrl, requestContentType, responseContentType, jsonPayload, language);
+        return httpPostToFluxResponse(renderWebClient, postUrl, requestContentType, responseContentType, jsonPayload, language);
     }
 
     /**
@@ -132,7 +169,7 @@ public class TedApiClient {
             putIfPresent(jsonPayload, "eFormsSdkVersion", eformsSdkVersion);
         }
 
-        return httpPostToParameterizedMonoResponse(postUrl, requestContentType, responseContentType, jsonPayload, svrlLangA2, String.class);
+        return httpPostToParameterizedMonoResponse(cvsWebClient, postUrl, requestContentType, responseContentType, jsonPayload, svrlLangA2, String.class);
     }
 
     private static void putIfPresent(final ObjectNode jsonPayload, final String key,
@@ -141,70 +178,120 @@ public class TedApiClient {
     }
 
     /**
-     * Common WebClient preparation with proxy, headers and body.
+     * Pool di connessioni per un endpoint TED, con metriche esposte tramite Micrometer
+     * (reactor.netty.connection.provider.*).
      *
-     * @return the response spec used to retrieve the response body
+     * @param name il nome del pool, usato anche come tag delle metriche
+     */
+    private ConnectionProvider buildConnectionProvider(final String name) {
+        final TedHttpClientConfig httpClientConfig = tedConfig.getHttpClient();
+        return ConnectionProvider.builder(name)
+                .maxConnections(httpClientConfig.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofSeconds(httpClientConfig.getPendingAcquireTimeoutSeconds()))
+                .maxIdleTime(Duration.ofSeconds(httpClientConfig.getMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(httpClientConfig.getMaxLifeTimeSeconds()))
+                .evictInBackground(Duration.ofSeconds(httpClientConfig.getEvictInBackgroundSeconds()))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * WebClient di lunga durata con proxy, timeout e dimensione massima degli allegati.
+     *
+     * @param connectionProvider il pool di connessioni dell'endpoint
+     * @param proxyAddressOpt    l'indirizzo del proxy, se abilitato
      */
-    private WebClient.ResponseSpec commonHttpPost(final String postUrl, final MediaType requestContentType,
-                                                  final MediaType responseContentType, final ObjectNode jsonPayload,
-                                                  final Optional<String> svrlLangA2) {
-        WebClient.Builder webClientBuilder = WebClient.builder();
+    private WebClient buildWebClient(final ConnectionProvider connectionProvider,
+                                     final Optional<InetSocketAddress> proxyAddressOpt) {
+        final TedHttpClientConfig httpClientConfig = tedConfig.getHttpClient();
 
         // Attachment size in byte
         val attachmentSize = tedConfig.getAttachmentSizeMB() * 1024 * 1024;
 
-        // Verifica se la configurazione del proxy è fornita e abilitata
-        if (proxyConfig != null && proxyConfig.isEnableProxy()) {
-
-            // Seleziona il proxy HTTPS se disponibile, altrimenti usa il proxy HTTP
-            String proxy = StringUtils.isNotBlank(proxyConfig.getHttpsProxy()) ? proxyConfig.getHttpsProxy() : proxyConfig.getHttpProxy();
-
-            // Assicura che un proxy sia effettivamente definito
-            if (StringUtils.isBlank(proxy)) {
-                String msg = "Proxy non definito";
-                log.error(msg);
-                throw new IllegalArgumentException(msg);
-            }
-
-            // Rimuove i prefissi HTTP/HTTPS dalla stringa del proxy
-            proxy = proxy.replace(HTTP_PREFIX, "").replace(HTTPS_PREFIX, "");
-
-            // Trova l'ultima occorrenza dei due punti nella stringa del proxy (separa host da porta)
-            int lastColonIndex = proxy.lastIndexOf(COLON);
-
-            if (lastColonIndex == -1) {
-                String msg = "Formato proxy non valido. Formato atteso: host:port";
-                log.error(msg);
-                throw new IllegalArgumentException(msg);
-            }
-
-            val proxyHost = proxy.substring(0, lastColonIndex);
-            val proxyPort = Integer.parseInt(proxy.substring(lastColonIndex + 1));
-
-            if (StringUtils.isBlank(proxyHost)) {
-                throw new IllegalArgumentException("L'host del proxy non puo' essere vuoto");
-            }
-            // Valida che la porta del proxy sia nell'intervallo valido (1-65535)
-            if (proxyPort <= 0 || proxyPort > 65535) {
-                throw new IllegalArgumentException("Porta del proxy non valida: " + proxyPort);
-            }
-
-            HttpClient httpClient = HttpClient
-                    .create()
-                    .proxy(p -> p.type(ProxyProvider.Proxy.HTTP)
-                            .address(new InetSocketAddress(proxyHost, proxyPort))
-                    );
-
-            webClientBuilder = webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient));
+        HttpClient httpClient = HttpClient
+                .create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, httpClientConfig.getConnectTimeoutMs())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofSeconds(httpClientConfig.getResponseTimeoutSeconds()));
+
+        if (httpClientConfig.isHttp2()) {
+            // HTTP/2 negoziato via ALPN sugli endpoint HTTPS, altrimenti HTTP/1.1
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
         }
 
-        val requestBuilder = webClientBuilder
+        if (proxyAddressOpt.isPresent()) {
+            // Indirizzo non risolto: l'host del proxy viene risolto ad ogni nuova connessione
+            final InetSocketAddress proxyAddress = proxyAddressOpt.get();
+            httpClient = httpClient.proxy(p -> p.type(ProxyProvider.Proxy.HTTP)
+                    .host(proxyAddress.getHostString())
+                    .port(proxyAddress.getPort())
+            );
+        }
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(
                         ExchangeStrategies.builder()
                                 .codecs(clientCodecConfigurer ->
                                         clientCodecConfigurer.defaultCodecs().maxInMemorySize(attachmentSize)
                                 ).build())
-                .build()
+                .build();
+    }
+
+    /**
+     * @return l'indirizzo del proxy se la configurazione e' fornita e abilitata, vuoto altrimenti
+     */
+    private Optional<InetSocketAddress> resolveProxyAddress() {
+        // Verifica se la configurazione del proxy è fornita e abilitata
+        if (proxyConfig == null || !proxyConfig.isEnableProxy()) {
+            return Optional.empty();
+        }
+
+        // Seleziona il proxy HTTPS se disponibile, altrimenti usa il proxy HTTP
+        String proxy = StringUtils.isNotBlank(proxyConfig.getHttpsProxy()) ? proxyConfig.getHttpsProxy() : proxyConfig.getHttpProxy();
+
+        // Assicura che un proxy sia effettivamente definito
+        if (StringUtils.isBlank(proxy)) {
+            String msg = "Proxy non definito";
+            log.error(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        // Rimuove i prefissi HTTP/HTTPS dalla stringa del proxy
+        proxy = proxy.replace(HTTP_PREFIX, "").replace(HTTPS_PREFIX, "");
+
+        // Trova l'ultima occorrenza dei due punti nella stringa del proxy (separa host da porta)
+        int lastColonIndex = proxy.lastIndexOf(COLON);
+
+        if (lastColonIndex == -1) {
+            String msg = "Formato proxy non valido. Formato atteso: host:port";
+            log.error(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        val proxyHost = proxy.substring(0, lastColonIndex);
+        val proxyPort = Integer.parseInt(proxy.substring(lastColonIndex + 1));
+
+        if (StringUtils.isBlank(proxyHost)) {
+            throw new IllegalArgumentException("L'host del proxy non puo' essere vuoto");
+        }
+        // Valida che la porta del proxy sia nell'intervallo valido (1-65535)
+        if (proxyPort <= 0 || proxyPort > 65535) {
+            throw new IllegalArgumentException("Porta del proxy non valida: " + proxyPort);
+        }
+
+        return Optional.of(InetSocketAddress.createUnresolved(proxyHost, proxyPort));
+    }
+
+    /**
+     * Common WebClient preparation with headers and body.
+     *
+     * @return the response spec used to retrieve the response body
+     */
+    private WebClient.ResponseSpec commonHttpPost(final WebClient webClient, final String postUrl,
+                                                  final MediaType requestContentType, final MediaType responseContentType,
+                                                  final ObjectNode jsonPayload, final Optional<String> svrlLangA2) {
+        val requestBuilder = webClient
                 .method(HttpMethod.POST).uri(postUrl);
 
         // Set content type
@@ -233,11 +320,11 @@ public class TedApiClient {
     /**
      * @return The response body as flux
      */
-    private Flux<DataBuffer> httpPostToFluxResponse(final String postUrl, final MediaType requestContentType,
-                                                    final MediaType responseContentType, final ObjectNode jsonPayload,
-                                                    final Optional<String> svrlLangA2) {
+    private Flux<DataBuffer> httpPostToFluxResponse(final WebClient webClient, final String postUrl,
+                                                    final MediaType requestContentType, final MediaType responseContentType,
+                                                    final ObjectNode jsonPayload, final Optional<String> svrlLangA2) {
 
-        val response = commonHttpPost(postUrl, requestContentType, responseContentType, jsonPayload, svrlLangA2);
+        val response = commonHttpPost(webClient, postUrl, requestContentType, responseContentType, jsonPayload, svrlLangA2);
 
         return response
                 .onStatus(HttpStatusCode::isError, err -> {
@@ -251,11 +338,12 @@ public class TedApiClient {
     /**
      * @return The response body as parameterized mono
      */
-    private <T> Mono<T> httpPostToParameterizedMonoResponse(final String postUrl, final MediaType requestContentType,
-                                                            final MediaType responseContentType, final ObjectNode jsonPayload,
-                                                            final Optional<String> svrlLangA2, Class<T> bodyType) {
+    private <T> Mono<T> httpPostToParameterizedMonoResponse(final WebClient webClient, final String postUrl,
+                                                            final MediaType requestContentType, final MediaType responseContentType,
+                                                            final ObjectNode jsonPayload, final Optional<String> svrlLangA2,
+                                                            Class<T> bodyType) {
 
-        val response = commonHttpPost(postUrl, requestContentType, responseContentType, jsonPayload, svrlLangA2);
+        val response = commonHttpPost(webClient, postUrl, requestContentType, responseContentType, jsonPayload, svrlLangA2);
 
         return response
                 .onStatus(HttpStatusCode::isError, err -> {
@@ -284,6 +372,10 @@ public class TedApiClient {
      * @return The text encoded in base 64
      */
     private static String toBase64(final String text) {
-        return new String(Base64.getEncoder().encode(text.getBytes(CHARSET)), CHARSET);
+        return toBase64(text.getBytes(CHARSET));
+    }
+
+    private static String toBase64(final byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
     }
 }
@@ -19,4 +19,5 @@ public class TedConfig {
     private final int attachmentSizeMB;
     private final CvsConfig cvs;
     private final RenderConfig render;
+    private final TedHttpClientConfig httpClient;
 }
@@ -0,0 +1,34 @@
+package it.appaltiecontratti.meforms.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * Configurazione del client HTTP (pool di connessioni e timeout) verso i servizi TED, letta come
+ * "application.ted.httpClient" di {@link TedConfig}.
+ */
+@Data
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class TedHttpClientConfig {
+    // Numero massimo di connessioni per endpoint
+    private final int maxConnections;
+    // Attesa massima di una connessione libera dal pool
+    private final int pendingAcquireTimeoutSeconds;
+    // Tempo massimo di inattivita' di una connessione prima di essere chiusa
+    private final int maxIdleTimeSeconds;
+    // Durata massima di una connessione
+    private final int maxLifeTimeSeconds;
+    // Intervallo di rimozione in background delle connessioni scadute
+    private final int evictInBackgroundSeconds;
+    private final int connectTimeoutMs;
+    private final int responseTimeoutSeconds;
+    // Abilita HTTP/2 (negoziato via ALPN, con fallback su HTTP/1.1)
+    private final boolean http2;
+}
@@ -0,0 +1,167 @@
+package it.appaltiecontratti.meforms.helpers.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Cache con caricamento su richiesta e limite di memoria: ogni valore ha un peso stimato in byte e,
+ * superato il limite, vengono rimossi i valori usati meno di recente (LRU). Il valore piu' recente
+ * resta sempre in cache, anche se da solo supera il limite.
+ * </p>
+ *
+ * <p>
+ * Il caricamento avviene fuori dal lock: richieste concorrenti per la stessa chiave attendono un unico
+ * caricamento. Caricamento e attesa sono bloccanti, per cui un valore non in cache richiesto da un thread
+ * non bloccante (es. event loop di Reactor Netty) e' un errore: i chiamanti reattivi devono usare un
+ * scheduler bloccante (es. Schedulers.boundedElastic()). Metriche "meforms.cache.*" con tag cache=nome.
+ * </p>
+ */
+@Slf4j
+public class MemoryBudgetCache<K, V> {
+
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    // Ordine di accesso: il primo elemento e' quello usato meno di recente
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private long totalWeight;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    private record Weighted<V>(V value, long weight) {
+    }
+
+    /**
+     * @param name          Nome della cache, usato nei log e nelle metriche
+     * @param maxWeight     Limite di memoria stimata in byte
+     * @param weigher       Stima in byte della memoria occupata da un valore
+     * @param meterRegistry Registro delle metriche
+     */
+    public MemoryBudgetCache(final String name, final long maxWeight, final ToLongFunction<V> weigher,
+                             final MeterRegistry meterRegistry) {
+        Validate.notBlank(name, "name is blank");
+        Validate.isTrue(maxWeight > 0, "maxWeight must be positive for cache=%s", name);
+        Validate.notNull(weigher, "weigher is null");
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+
+        this.hitCounter = Counter.builder("meforms.cache.requests")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("meforms.cache.requests")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("meforms.cache.evictions")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("meforms.cache.size", this, MemoryBudgetCache::size)
+                .description("Number of entries in cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("meforms.cache.weight", this, MemoryBudgetCache::weight)
+                .description("Estimated memory of the entries in cache")
+                .tag("cache", name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key    La chiave
+     * @param loader Caricamento del valore se non presente in cache, non deve restituire null
+     * @return Il valore in cache o appena caricato
+     */
+    public V get(final K key, final Function<K, V> loader) {
+        final CompletableFuture<V> own = new CompletableFuture<>();
+        final CompletableFuture<V> pending;
+        // Ricerca e registrazione del caricamento insieme: il valore viene inserito prima di togliere il
+        // caricamento, per cui una chiave assente qui e' ancora in caricamento oppure da caricare
+        synchronized (this) {
+            final Weighted<V> entry = entries.get(key);
+            if (entry != null) {
+                hitCounter.increment();
+                return entry.value();
+            }
+            missCounter.increment();
+            Validate.validState(!Schedulers.isInNonBlockingThread(), "Blocking load of key=%s in cache=%s on non-blocking thread=%s",
+                    key, name, Thread.currentThread().getName());
+            pending = loading.putIfAbsent(key, own);
+        }
+        if (pending != null) {
+            // Caricamento gia' in corso da parte di un'altra richiesta
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            final V value = loader.apply(key);
+            Validate.notNull(value, "null value loaded for key=%s in cache=%s", key, name);
+            put(key, value);
+            own.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, own);
+        }
+    }
+
+    /**
+     * @param key   La chiave
+     * @param value Il valore da inserire (es. precaricamento), sostituisce quello presente
+     */
+    public synchronized void put(final K key, final V value) {
+        final long weight = weigher.applyAsLong(value);
+        final Weighted<V> previous = entries.put(key, new Weighted<>(value, weight));
+        if (previous != null) {
+            totalWeight -= previous.weight();
+        }
+        totalWeight += weight;
+        evict();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<K, Weighted<V>>> iterator = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && entries.size() > 1 && iterator.hasNext()) {
+            final Map.Entry<K, Weighted<V>> eldest = iterator.next();
+            iterator.remove();
+            totalWeight -= eldest.getValue().weight();
+            evictionCounter.increment();
+            log.debug("Evicted key={} from cache={}, weight={} of {}", eldest.getKey(), name, totalWeight, maxWeight);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package it.appaltiecontratti.meforms.helpers.codelist;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.appaltiecontratti.meforms.helpers.payload.PreparedPayload;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Code list in una lingua con le strutture derivate: la risposta gia' serializzata, la gerarchia e
+ * l'indice di ricerca, costruito alla prima ricerca. E' l'unita' di caricamento ed eliminazione della
+ * cache delle code lists.
+ * </p>
+ */
+public final class CachedCodelist {
+
+    // L'albero Jackson, la gerarchia e l'indice occupano alcune volte la dimensione del json serializzato
+    private static final int IN_MEMORY_SIZE_FACTOR = 8;
+
+    private final ObjectNode codelist;
+    private final String langCode;
+    private final PreparedPayload payload;
+    private final CodelistTree tree;
+    private volatile CodelistIndex index;
+
+    /**
+     * @param codelist La code list
+     * @param langCode La lingua delle etichette
+     * @param payload  La risposta della singola code list, con la posizione dei dati per le risposte
+     *                 che ne contengono piu' di una
+     */
+    public CachedCodelist(final ObjectNode codelist, final String langCode, final PreparedPayload payload) {
+        Validate.notNull(codelist, "codelist is null");
+        Validate.notBlank(langCode, "langCode is blank");
+        Validate.notNull(payload, "payload is null");
+        this.codelist = codelist;
+        this.langCode = langCode;
+        this.payload = payload;
+        this.tree = new CodelistTree(codelist);
+    }
+
+    public ObjectNode getCodelist() {
+        return codelist;
+    }
+
+    public PreparedPayload getPayload() {
+        return payload;
+    }
+
+    public CodelistTree getTree() {
+        return tree;
+    }
+
+    public CodelistIndex getIndex() {
+        CodelistIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new CodelistIndex(codelist, langCode);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Stima in byte della memoria occupata
+     */
+    public long estimateSizeInBytes() {
+        return (long) payload.getIdentity().length * IN_MEMORY_SIZE_FACTOR + payload.sizeInBytes();
+    }
+}
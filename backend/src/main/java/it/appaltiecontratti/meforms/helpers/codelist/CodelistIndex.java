@@ -0,0 +1,199 @@
+package it.appaltiecontratti.meforms.helpers.codelist;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import it.appaltiecontratti.meforms.util.JsonUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Indice di ricerca in memoria di una code list in una lingua. Codici ed etichette vengono normalizzati
+ * una sola volta (minuscolo, senza accenti) e i codici e le parole delle etichette sono conservati in
+ * array ordinati: la ricerca per prefisso e' una ricerca binaria, quella per sottostringa una scansione
+ * dei testi gia' normalizzati.
+ * </p>
+ *
+ * <p>
+ * I risultati rispettano l'ordine della code list. L'istanza e' immutabile e condivisibile tra richieste.
+ * </p>
+ */
+public final class CodelistIndex {
+
+    public enum MatchMode {
+        // Il codice inizia con il testo cercato o ogni parola cercata e' l'inizio di una parola dell'etichetta
+        PREFIX,
+        // Il codice o l'etichetta contengono il testo cercato
+        INFIX
+    }
+
+    /**
+     * @param total Numero totale di righe trovate
+     * @param rows  Le righe della pagina richiesta
+     */
+    public record Page(int total, List<JsonNode> rows) {
+    }
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final List<JsonNode> rows;
+    private final String[] normalizedCodes;
+    private final String[] normalizedLabels;
+
+    // Chiavi ordinate e riga corrispondente, per la ricerca per prefisso
+    private final String[] codeKeys;
+    private final int[] codeKeyRows;
+    private final String[] wordKeys;
+    private final int[] wordKeyRows;
+
+    /**
+     * @param codelist La code list come servita al form (con l'array "codes")
+     * @param langCode La lingua delle etichette (es. "it")
+     */
+    public CodelistIndex(final JsonNode codelist, final String langCode) {
+        Validate.notNull(codelist, "codelist is null");
+        Validate.notBlank(langCode, "langCode is blank");
+
+        this.rows = Collections.unmodifiableList(JsonUtils.getList(codelist.get("codes")));
+        final int count = rows.size();
+        this.normalizedCodes = new String[count];
+        this.normalizedLabels = new String[count];
+
+        final List<IndexKey> codeIndex = new ArrayList<>(count);
+        final List<IndexKey> wordIndex = new ArrayList<>(count * 4);
+        for (int i = 0; i < count; i++) {
+            final JsonNode row = rows.get(i);
+            normalizedCodes[i] = normalize(row.path("codeValue").asText(""));
+            normalizedLabels[i] = normalize(row.path(langCode).asText(""));
+
+            codeIndex.add(new IndexKey(normalizedCodes[i], i));
+            final Set<String> words = new HashSet<>();
+            for (final String word : WORD_SEPARATOR.split(normalizedLabels[i])) {
+                if (!word.isEmpty() && words.add(word)) {
+                    wordIndex.add(new IndexKey(word, i));
+                }
+            }
+        }
+
+        Collections.sort(codeIndex);
+        Collections.sort(wordIndex);
+        this.codeKeys = codeIndex.stream().map(IndexKey::key).toArray(String[]::new);
+        this.codeKeyRows = codeIndex.stream().mapToInt(IndexKey::row).toArray();
+        this.wordKeys = wordIndex.stream().map(IndexKey::key).toArray(String[]::new);
+        this.wordKeyRows = wordIndex.stream().mapToInt(IndexKey::row).toArray();
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * @param query Il testo cercato, vuoto per tutte le righe
+     * @param mode  Ricerca per prefisso o per sottostringa
+     * @param page  La pagina, a partire da 0
+     * @param size  Il numero di righe per pagina
+     * @return Le righe della pagina e il numero totale di righe trovate
+     */
+    public Page search(final String query, final MatchMode mode, final int page, final int size) {
+        Validate.notNull(mode, "mode is null");
+        Validate.isTrue(page >= 0, "page must not be negative");
+        Validate.isTrue(size > 0, "size must be positive");
+
+        final String normalizedQuery = SPACES.matcher(normalize(query == null ? "" : query)).replaceAll(" ").strip();
+
+        final BitSet matches;
+        if (normalizedQuery.isEmpty()) {
+            matches = new BitSet(rows.size());
+            matches.set(0, rows.size());
+        } else if (mode == MatchMode.PREFIX) {
+            matches = matchPrefix(normalizedQuery);
+        } else {
+            matches = matchInfix(normalizedQuery);
+        }
+
+        final List<JsonNode> pageRows = new ArrayList<>(size);
+        final long first = (long) page * size;
+        int position = 0;
+        for (int row = matches.nextSetBit(0); row >= 0 && pageRows.size() < size; row = matches.nextSetBit(row + 1)) {
+            if (position++ >= first) {
+                pageRows.add(rows.get(row));
+            }
+        }
+        return new Page(matches.cardinality(), pageRows);
+    }
+
+    private BitSet matchPrefix(final String normalizedQuery) {
+        final BitSet matches = new BitSet(rows.size());
+        addPrefixRows(codeKeys, codeKeyRows, normalizedQuery, matches);
+
+        // Ogni parola cercata deve essere l'inizio di almeno una parola dell'etichetta
+        BitSet labelMatches = null;
+        for (final String word : WORD_SEPARATOR.split(normalizedQuery)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            final BitSet wordMatches = new BitSet(rows.size());
+            addPrefixRows(wordKeys, wordKeyRows, word, wordMatches);
+            if (labelMatches == null) {
+                labelMatches = wordMatches;
+            } else {
+                labelMatches.and(wordMatches);
+            }
+        }
+        if (labelMatches != null) {
+            matches.or(labelMatches);
+        }
+        return matches;
+    }
+
+    private BitSet matchInfix(final String normalizedQuery) {
+        final BitSet matches = new BitSet(rows.size());
+        for (int i = 0; i < normalizedCodes.length; i++) {
+            if (normalizedCodes[i].contains(normalizedQuery) || normalizedLabels[i].contains(normalizedQuery)) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    private static void addPrefixRows(final String[] keys, final int[] keyRows, final String prefix,
+                                      final BitSet matches) {
+        // Prima chiave >= prefisso, le successive con lo stesso prefisso sono contigue
+        int index = Arrays.binarySearch(keys, prefix);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // In caso di chiavi uguali binarySearch non restituisce necessariamente la prima
+            while (index > 0 && keys[index - 1].equals(prefix)) {
+                index--;
+            }
+        }
+        for (int i = index; i < keys.length && keys[i].startsWith(prefix); i++) {
+            matches.set(keyRows[i]);
+        }
+    }
+
+    /**
+     * @param text Il testo da normalizzare
+     * @return Il testo in minuscolo e senza accenti
+     */
+    static String normalize(final String text) {
+        final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexKey(String key, int row) implements Comparable<IndexKey> {
+        @Override
+        public int compareTo(final IndexKey other) {
+            final int result = key.compareTo(other.key);
+            return result != 0 ? result : Integer.compare(row, other.row);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package it.appaltiecontratti.meforms.helpers.codelist;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import it.appaltiecontratti.meforms.util.JsonUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.*;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Gerarchia di una code list (es. CPV, NUTS) ricostruita dal "parentCode" delle righe: per ogni codice
+ * sono precalcolati il padre, i figli e il numero di discendenti. Le righe senza padre, o con un padre non
+ * presente nella code list, sono radici; una code list senza "parentCode" ha quindi solo radici.
+ * </p>
+ *
+ * <p>
+ * L'istanza e' immutabile e condivisibile tra richieste.
+ * </p>
+ */
+public final class CodelistTree {
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private final List<JsonNode> rows;
+    private final Map<String, Integer> rowByCode;
+    private final int[] parents;
+    private final int[] roots;
+    private final int[][] children;
+    private final int[] descendantCounts;
+
+    /**
+     * @param codelist La code list come servita al form (con l'array "codes")
+     */
+    public CodelistTree(final JsonNode codelist) {
+        Validate.notNull(codelist, "codelist is null");
+
+        this.rows = Collections.unmodifiableList(JsonUtils.getList(codelist.get("codes")));
+        final int count = rows.size();
+
+        this.rowByCode = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            // In caso di codici duplicati vale la prima riga
+            rowByCode.putIfAbsent(rows.get(i).path("codeValue").asText(""), i);
+        }
+
+        this.parents = new int[count];
+        final List<List<Integer>> childLists = new ArrayList<>(count);
+        final List<Integer> rootList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            childLists.add(null);
+        }
+        for (int i = 0; i < count; i++) {
+            final JsonNode parentCode = rows.get(i).get("parentCode");
+            final Integer parent = parentCode == null || parentCode.isNull() ? null : rowByCode.get(parentCode.asText());
+            if (parent == null || parent == i) {
+                parents[i] = -1;
+                rootList.add(i);
+            } else {
+                parents[i] = parent;
+                List<Integer> siblings = childLists.get(parent);
+                if (siblings == null) {
+                    siblings = new ArrayList<>();
+                    childLists.set(parent, siblings);
+                }
+                siblings.add(i);
+            }
+        }
+
+        this.roots = toArray(rootList);
+        this.children = new int[count][];
+        for (int i = 0; i < count; i++) {
+            children[i] = childLists.get(i) == null ? NO_CHILDREN : toArray(childLists.get(i));
+        }
+        this.descendantCounts = countDescendants();
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * @param code Il codice, null per le radici
+     * @return Le righe figlie nell'ordine della code list
+     */
+    public List<Integer> getChildren(final String code) {
+        final int[] result = code == null ? roots : children[getRow(code)];
+        final List<Integer> list = new ArrayList<>(result.length);
+        for (final int row : result) {
+            list.add(row);
+        }
+        return list;
+    }
+
+    /**
+     * @param code Il codice
+     * @return Le righe dalla radice fino al codice compreso
+     */
+    public List<Integer> getPath(final String code) {
+        final LinkedList<Integer> path = new LinkedList<>();
+        for (int row = getRow(code); row >= 0; row = parents[row]) {
+            path.addFirst(row);
+            // Protezione da eventuali cicli nei parentCode
+            Validate.isTrue(path.size() <= rows.size(), "cycle in parentCode for code=%s", code);
+        }
+        return path;
+    }
+
+    public JsonNode getRowNode(final int row) {
+        return rows.get(row);
+    }
+
+    public int getChildCount(final int row) {
+        return children[row].length;
+    }
+
+    public int getDescendantCount(final int row) {
+        return descendantCounts[row];
+    }
+
+    private int getRow(final String code) {
+        final Integer row = rowByCode.get(code);
+        Validate.notNull(row, "code=%s not found", code);
+        return row;
+    }
+
+    // Visita in post-ordine iterativa a partire dalle radici: evita la ricorsione sulle gerarchie profonde
+    private int[] countDescendants() {
+        final int[] counts = new int[rows.size()];
+        final Deque<int[]> stack = new ArrayDeque<>();
+        for (final int root : roots) {
+            stack.push(new int[]{root, 0});
+            while (!stack.isEmpty()) {
+                final int[] frame = stack.peek();
+                final int row = frame[0];
+                if (frame[1] < children[row].length) {
+                    stack.push(new int[]{children[row][frame[1]++], 0});
+                } else {
+                    stack.pop();
+                    if (parents[row] >= 0) {
+                        counts[parents[row]] += counts[row] + 1;
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
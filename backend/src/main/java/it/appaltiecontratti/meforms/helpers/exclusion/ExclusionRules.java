@@ -0,0 +1,55 @@
+package it.appaltiecontratti.meforms.helpers.exclusion;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Regole di esclusione dei gruppi facoltativi (vedi "application.configuration.exclusion"),
+ * compilate una sola volta all'avvio in una mappa immutabile indicizzata per id del gruppo.
+ * </p>
+ *
+ * <p>
+ * L'istanza e' immutabile e puo' essere condivisa tra richieste concorrenti.
+ * </p>
+ */
+@Component
+public class ExclusionRules {
+
+    private final Map<String, Set<String>> fieldsByGroupId;
+
+    public ExclusionRules(final ApplicationConfiguration applicationConfiguration) {
+        final List<ExclusionItem> exclusionItemList = applicationConfiguration.getExclusion() != null
+                ? applicationConfiguration.getExclusion() : List.of();
+
+        // In caso di gruppi ripetuti nella configurazione i campi vengono uniti
+        final Map<String, Set<String>> temp = exclusionItemList.stream()
+                .collect(Collectors.toMap(ExclusionItem::getGroupName,
+                        item -> new LinkedHashSet<>(item.getFields()),
+                        (a, b) -> {
+                            a.addAll(b);
+                            return a;
+                        }));
+
+        final Map<String, Set<String>> result = new HashMap<>(temp.size());
+        temp.forEach((groupId, fields) -> result.put(groupId, Collections.unmodifiableSet(fields)));
+        this.fieldsByGroupId = Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @param groupId id del gruppo (contentId del modello visuale)
+     * @return i campi da verificare per il gruppo, vuoto se il gruppo non ha regole
+     */
+    public Set<String> getFields(final String groupId) {
+        return fieldsByGroupId.getOrDefault(groupId, Set.of());
+    }
+
+    public boolean hasRules(final String groupId) {
+        return fieldsByGroupId.containsKey(groupId);
+    }
+}
@@ -0,0 +1,181 @@
+package it.appaltiecontratti.meforms.helpers.notice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import eu.europa.ted.eforms.sdk.SdkConstants;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Riduzione di fields.json per la risposta "basic-meta-data": rimozione delle proprieta' di fields e nodes
+ * non usate dal front-end (es. "xsdSequenceOrder") e selezione dei soli fields e nodes di un notice subtype.
+ * </p>
+ *
+ * <p>
+ * Per un notice subtype vengono mantenuti i fields e i nodes citati nel contenuto di
+ * notice-types/{noticeSubType}.json, i fields attributo dei fields mantenuti e tutti i nodes antenati,
+ * in modo che la gerarchia resti completa fino a ND-Root.
+ * </p>
+ */
+public final class BasicMetadataProjection {
+
+    private static final String NOTICE_TYPE_METADATA = "metadata";
+    private static final String NOTICE_TYPE_CONTENT = "content";
+    private static final String NOTICE_TYPE_CONTENT_TYPE = "contentType";
+    private static final String NOTICE_TYPE_CONTENT_TYPE_FIELD = "field";
+    private static final String NOTICE_TYPE_NODE_ID = "nodeId";
+
+    private BasicMetadataProjection() {
+        throw new AssertionError("Utility class.");
+    }
+
+    /**
+     * Rimuove le proprieta' indicate da ogni field e node.
+     *
+     * @param fieldsJson         Il contenuto di fields.json, modificato
+     * @param excludedProperties Le proprieta' da rimuovere (es. "xsdSequenceOrder", "assert")
+     */
+    public static void removeProperties(final ObjectNode fieldsJson, final Collection<String> excludedProperties) {
+        Validate.notNull(fieldsJson, "fieldsJson is null");
+        if (excludedProperties == null || excludedProperties.isEmpty()) {
+            return;
+        }
+        for (final String key : new String[]{SdkConstants.FIELDS_JSON_FIELDS_KEY, SdkConstants.FIELDS_JSON_XML_STRUCTURE_KEY}) {
+            final JsonNode items = fieldsJson.get(key);
+            if (items != null) {
+                for (final JsonNode item : items) {
+                    ((ObjectNode) item).remove(excludedProperties);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mantiene i soli fields e nodes usati dal notice subtype.
+     *
+     * @param fieldsJson     Il contenuto di fields.json, modificato
+     * @param noticeTypeJson Il contenuto di notice-types/{noticeSubType}.json
+     */
+    public static void retainNoticeType(final ObjectNode fieldsJson, final JsonNode noticeTypeJson) {
+        Validate.notNull(fieldsJson, "fieldsJson is null");
+        Validate.notNull(noticeTypeJson, "noticeTypeJson is null");
+
+        final Set<String> fieldIds = new HashSet<>();
+        final Set<String> nodeIds = new HashSet<>();
+        final Deque<JsonNode> stack = new ArrayDeque<>();
+        pushAll(stack, noticeTypeJson.get(NOTICE_TYPE_METADATA));
+        pushAll(stack, noticeTypeJson.get(NOTICE_TYPE_CONTENT));
+        while (!stack.isEmpty()) {
+            final JsonNode item = stack.pop();
+            if (NOTICE_TYPE_CONTENT_TYPE_FIELD.equals(item.path(NOTICE_TYPE_CONTENT_TYPE).asText())) {
+                fieldIds.add(item.path(FieldsAndNodes.ID).asText());
+            }
+            if (item.hasNonNull(NOTICE_TYPE_NODE_ID)) {
+                nodeIds.add(item.get(NOTICE_TYPE_NODE_ID).asText());
+            }
+            pushAll(stack, item.get(NOTICE_TYPE_CONTENT));
+        }
+
+        // Fields attributo (es. unita' di misura, schemeName) e node padre dei fields usati
+        final ArrayNode fields = (ArrayNode) fieldsJson.get(SdkConstants.FIELDS_JSON_FIELDS_KEY);
+        for (final JsonNode field : fields) {
+            if (fieldIds.contains(field.path(FieldsAndNodes.ID).asText())) {
+                for (final JsonNode attribute : field.path(FieldsAndNodes.ATTRIBUTES)) {
+                    fieldIds.add(attribute.asText());
+                }
+            }
+        }
+        for (final JsonNode field : fields) {
+            if (fieldIds.contains(field.path(FieldsAndNodes.ID).asText()) && field.hasNonNull(FieldsAndNodes.FIELD_PARENT_NODE_ID)) {
+                nodeIds.add(field.get(FieldsAndNodes.FIELD_PARENT_NODE_ID).asText());
+            }
+        }
+
+        // Antenati dei nodes usati
+        final ArrayNode nodes = (ArrayNode) fieldsJson.get(SdkConstants.FIELDS_JSON_XML_STRUCTURE_KEY);
+        final Map<String, String> parentIdByNodeId = new HashMap<>();
+        for (final JsonNode node : nodes) {
+            if (node.hasNonNull(FieldsAndNodes.NODE_PARENT_NODE_ID)) {
+                parentIdByNodeId.put(node.path(FieldsAndNodes.ID).asText(), node.get(FieldsAndNodes.NODE_PARENT_NODE_ID).asText());
+            }
+        }
+        for (final String nodeId : Set.copyOf(nodeIds)) {
+            String parentId = parentIdByNodeId.get(nodeId);
+            while (parentId != null && nodeIds.add(parentId)) {
+                parentId = parentIdByNodeId.get(parentId);
+            }
+        }
+
+        retain(fields, fieldIds);
+        retain(nodes, nodeIds);
+    }
+
+    /**
+     * @param noticeTypeJson Il contenuto di notice-types/{noticeSubType}.json
+     * @return Gli id di tutti gli elementi (fields e groups) dei metadati e del contenuto
+     */
+    public static Set<String> collectContentIds(final JsonNode noticeTypeJson) {
+        Validate.notNull(noticeTypeJson, "noticeTypeJson is null");
+        final Set<String> ids = new HashSet<>();
+        final Deque<JsonNode> stack = new ArrayDeque<>();
+        pushAll(stack, noticeTypeJson.get(NOTICE_TYPE_METADATA));
+        pushAll(stack, noticeTypeJson.get(NOTICE_TYPE_CONTENT));
+        while (!stack.isEmpty()) {
+            final JsonNode item = stack.pop();
+            if (item.hasNonNull(FieldsAndNodes.ID)) {
+                ids.add(item.get(FieldsAndNodes.ID).asText());
+            }
+            pushAll(stack, item.get(NOTICE_TYPE_CONTENT));
+        }
+        return ids;
+    }
+
+    /**
+     * @param fieldsJson Il contenuto di fields.json, anche ridotto
+     * @return Gli id delle code lists associate ai fields, in ordine alfabetico
+     */
+    public static Set<String> collectCodelistIds(final JsonNode fieldsJson) {
+        Validate.notNull(fieldsJson, "fieldsJson is null");
+        final Set<String> codelistIds = new TreeSet<>();
+        for (final JsonNode field : fieldsJson.path(SdkConstants.FIELDS_JSON_FIELDS_KEY)) {
+            final JsonNode codelistId = field.path(PhysicalModel.FIELD_CODE_LIST).path(FieldsAndNodes.VALUE)
+                    .path(FieldsAndNodes.CODELIST_ID);
+            if (codelistId.isTextual()) {
+                codelistIds.add(codelistId.asText());
+            }
+        }
+        return codelistIds;
+    }
+
+    private static void pushAll(final Deque<JsonNode> stack, final JsonNode items) {
+        if (items != null && items.isArray()) {
+            items.forEach(stack::push);
+        }
+    }
+
+    private static void retain(final ArrayNode items, final Set<String> ids) {
+        final List<JsonNode> retained = new ArrayList<>(ids.size());
+        for (final JsonNode item : items) {
+            if (ids.contains(item.path(FieldsAndNodes.ID).asText())) {
+                retained.add(item);
+            }
+        }
+        items.removeAll();
+        items.addAll(retained);
+    }
+}
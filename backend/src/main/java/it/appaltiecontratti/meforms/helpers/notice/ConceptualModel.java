@@ -115,9 +115,7 @@ public class ConceptualModel {
     @Override
     public String toString() {
         try {
-            return JsonUtils.getStandardJacksonObjectMapper()
-                    .writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(this.treeRootNode);
+            return JsonUtils.getPrettyWriter().writeValueAsString(this.treeRootNode);
         } catch (JsonProcessingException ex) {
             throw new RuntimeException(ex);
         }
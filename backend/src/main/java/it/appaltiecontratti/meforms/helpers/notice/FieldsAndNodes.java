@@ -7,6 +7,7 @@ import eu.europa.ted.eforms.sdk.SdkConstants;
 import eu.europa.ted.eforms.sdk.SdkVersion;
 import it.appaltiecontratti.meforms.helpers.VersionHelper;
 import it.appaltiecontratti.meforms.util.JsonUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.util.*;
@@ -173,6 +174,21 @@ public class FieldsAndNodes {
         return sdkVersion;
     }
 
+    /**
+     * @return The number of distinct xpath parts of the node relative xpaths, the expressions compiled while
+     * building the physical model
+     */
+    public int countDistinctNodeXpathParts() {
+        final Set<String> xpathParts = new HashSet<>(2 * nodeById.size());
+        for (final JsonNode node : nodeById.values()) {
+            JsonUtils.getTextOpt(node, XPATH_RELATIVE).ifPresent(xpathRel -> PhysicalModel.getXpathParts(xpathRel)
+                    .stream()
+                    .filter(StringUtils::isNotBlank)
+                    .forEach(xpathParts::add));
+        }
+        return xpathParts.size();
+    }
+
     private static SdkVersion parseSdkVersion(final JsonNode fieldsJsonRoot) {
         // Example: "sdkVersion" : "eforms-sdk-1.3.2",
         final String text = fieldsJsonRoot.get(FIELDS_JSON_SDK_VERSION).asText(null);
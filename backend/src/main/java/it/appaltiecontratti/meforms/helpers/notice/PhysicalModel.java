@@ -6,10 +6,13 @@ import eu.europa.ted.eforms.sdk.SdkVersion;
 import it.appaltiecontratti.meforms.helpers.SafeDocumentBuilder;
 import it.appaltiecontratti.meforms.helpers.VersionHelper;
 import it.appaltiecontratti.meforms.sorting.NoticeXmlTagSorter;
+import it.appaltiecontratti.meforms.sorting.SdkXmlSortOrder;
 import it.appaltiecontratti.meforms.util.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -190,6 +193,23 @@ public class PhysicalModel {
         return EditorXmlUtils.asText(domDocument, indented);
     }
 
+    /**
+     * @param indented True if the XML should be indented, false otherwise.
+     * @return The XML as UTF-8 bytes.
+     */
+    public byte[] toXmlBytes(final boolean indented) {
+        return XmlSerializer.toBytes(domDocument, indented);
+    }
+
+    /**
+     * @param bufferFactory The factory of the buffer, for example the one of the HTTP response
+     * @param indented      True if the XML should be indented, false otherwise.
+     * @return The XML as UTF-8 bytes in a buffer that has to be released by the consumer.
+     */
+    public DataBuffer toXmlDataBuffer(final DataBufferFactory bufferFactory, final boolean indented) {
+        return XmlSerializer.toDataBuffer(domDocument, bufferFactory, indented);
+    }
+
     @Override
     public String toString() {
         return toXmlText(true);
@@ -208,6 +228,8 @@ public class PhysicalModel {
      *                            relies on the presence of fields or attribute of fields this could be problematic
      * @param sortXml             Sorts the XML according to the SDK xsdSequenceOrder if true, else keeps the raw
      *                            order
+     * @param xpathExpressionCache Cache of the compiled SDK xpath expressions
+     * @param sdkXmlSortOrder     The child sort order by element name, precomputed for the SDK version
      * @return The physical model as an object containing the XML with a few extras
      */
     public static PhysicalModel buildPhysicalModel(final ConceptualModel conceptModel,
@@ -215,7 +237,9 @@ public class PhysicalModel {
                                                    final Map<String, JsonNode> documentInfoByType, final boolean debug,
                                                    final boolean buildFields,
                                                    final Path sdkRootFolder,
-                                                   final boolean sortXml)
+                                                   final boolean sortXml,
+                                                   final XpathExpressionCache xpathExpressionCache,
+                                                   final SdkXmlSortOrder sdkXmlSortOrder)
             throws ParserConfigurationException, SAXException, IOException {
 
         log.info("Attempting to build physical model.");
@@ -240,6 +264,8 @@ public class PhysicalModel {
         // TEDEFO-1426
         // For the moment do as if it was there.
         final XPath xpathInst = setXmlNamespaces(docTypeInfo, xmlDocRoot);
+        final SdkXpathExpressions xpathExpressions =
+                xpathExpressionCache.getExpressions(docTypeInfo, fieldsAndNodes);
 
         if (debug) {
             // Write dot file about conceptual model.
@@ -252,7 +278,7 @@ public class PhysicalModel {
         final ConceptTreeNode conceptualModelTreeRootNode = conceptModel.getTreeRootNode();
         final int depth = 0;
         buildPhysicalModelRec(xmlDoc, fieldsAndNodes, conceptualModelTreeRootNode, xmlDocRoot, debug,
-                buildFields, depth, sb, xpathInst);
+                buildFields, depth, sb, xpathExpressions);
         log.info("Done building unsorted physical model.");
 
         removeEmptyElements(xmlDocRoot);
@@ -262,8 +288,7 @@ public class PhysicalModel {
         final SdkVersion sdkVersion = fieldsAndNodes.getSdkVersion();
         final Path pathToSpecificSdk = sdkRootFolder.resolve(sdkVersion.toStringWithoutPatch());
         final NoticeXmlTagSorter sorter =
-                new NoticeXmlTagSorter(xpathInst, docTypeInfo, pathToSpecificSdk,
-                        fieldsAndNodes);
+                new NoticeXmlTagSorter(sdkXmlSortOrder, docTypeInfo, pathToSpecificSdk);
         try {
             if (sortXml) {
                 log.info("Attempting to sort physical model.");
@@ -304,7 +329,7 @@ public class PhysicalModel {
     private static void buildPhysicalModelRec(final Document doc, final FieldsAndNodes fieldsAndNodes,
                                               final ConceptTreeNode conceptElem, final Element xmlNodeElem, final boolean debug,
                                               final boolean buildFields, final int depth,
-                                              final StringBuilder sb, final XPath xpathInst) {
+                                              final StringBuilder sb, final SdkXpathExpressions xpathExpressions) {
         Validate.notNull(conceptElem, "conceptElem is null");
         Validate.notNull(xmlNodeElem, "xmlElem is null, conceptElem=%s", conceptElem.getIdUnique());
 
@@ -330,7 +355,7 @@ public class PhysicalModel {
         //
         for (final ConceptTreeNode conceptNode : conceptElem.getConceptNodes()) {
             // The nodes may contain fields ...
-            buildNodesAndFields(doc, fieldsAndNodes, conceptNode, xpathInst, xmlNodeElem, debug, depth,
+            buildNodesAndFields(doc, fieldsAndNodes, conceptNode, xpathExpressions, xmlNodeElem, debug, depth,
                     sb, buildFields);
         }
     }
@@ -396,7 +421,7 @@ public class PhysicalModel {
      * @param doc            The XML document, modified as a SIDE-EFFECT!
      * @param fieldsAndNodes Field and node meta information (no form values)
      * @param conceptNode    The current conceptual node
-     * @param xpathInst      Allows to evaluate xpath expressions
+     * @param xpathExpressions Compiled xpath expressions of the SDK
      * @param xmlNodeElem    The current xml node element (modified as a SIDE-EFFECT!)
      * @param debug          Adds extra debugging info in the XML if true, for humans or unit tests, the XML
      *                       may become invalid
@@ -404,7 +429,7 @@ public class PhysicalModel {
      * @param buildFields    True if fields have to be built, false otherwise
      */
     private static boolean buildNodesAndFields(final Document doc,
-                                               final FieldsAndNodes fieldsAndNodes, final ConceptTreeNode conceptNode, final XPath xpathInst,
+                                               final FieldsAndNodes fieldsAndNodes, final ConceptTreeNode conceptNode, final SdkXpathExpressions xpathExpressions,
                                                final Element xmlNodeElem, final boolean debug, final int depth, final StringBuilder sb,
                                                final boolean buildFields) {
 
@@ -472,7 +497,8 @@ public class PhysicalModel {
             } else {
                 // Find existing elements in the context of the previous element.
                 final NodeList foundElements =
-                        XmlUtils.evaluateXpathAsNodeList(xpathInst, previousElem, xpathExpr, nodeId);
+                        XmlUtils.evaluateXpathAsNodeList(xpathExpressions.get(xpathExpr), previousElem, xpathExpr,
+                                nodeId);
                 if (foundElements.getLength() > 0) {
                     Validate.isTrue(foundElements.getLength() == 1,
                             "Found more than one element: {}, nodeId={}, xpathExpr={}", foundElements, nodeId,
@@ -523,7 +549,7 @@ public class PhysicalModel {
 
         // Build child nodes recursively.
         buildPhysicalModelRec(doc, fieldsAndNodes, conceptNode, lastNodeElem, debug, buildFields,
-                depth + 1, sb, xpathInst);
+                depth + 1, sb, xpathExpressions);
 
         return nodeMetaRepeatable;
     }
@@ -0,0 +1,110 @@
+package it.appaltiecontratti.meforms.helpers.notice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import eu.europa.ted.eforms.sdk.SdkConstants;
+import eu.europa.ted.eforms.sdk.SdkVersion;
+import it.appaltiecontratti.meforms.sorting.SdkXmlSortOrder;
+import it.appaltiecontratti.meforms.util.JsonUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Holds the SDK metadata required to build the physical model of a notice: the "fields.json" data
+ * (as {@link FieldsAndNodes}), the XML sort order derived from it and the "notice-types.json" data with
+ * the maps derived from it. As with all SDK data this is associated with an SDK version.
+ * </p>
+ *
+ * <p>
+ * The instance is built once and then shared between requests, it must be treated as read-only.
+ * </p>
+ */
+public class SdkMetadata {
+
+    private final SdkVersion sdkVersion;
+    private final JsonNode fieldsJson;
+    private final FieldsAndNodes fieldsAndNodes;
+    private final SdkXmlSortOrder xmlSortOrder;
+    private final JsonNode noticeTypesJson;
+    private final Map<String, JsonNode> noticeInfoBySubtype;
+    private final Map<String, JsonNode> documentInfoByType;
+
+    /**
+     * @param sdkVersion      The SDK version this data is associated to
+     * @param fieldsJson      The root of the SDK fields.json file
+     * @param noticeTypesJson The root of the SDK notice-types.json file
+     */
+    public SdkMetadata(final SdkVersion sdkVersion, final JsonNode fieldsJson,
+                       final JsonNode noticeTypesJson) {
+        Validate.notNull(sdkVersion, "Undefined SDK version");
+        Validate.notNull(fieldsJson, "fieldsJson is null for sdkVersion=%s", sdkVersion);
+        Validate.notNull(noticeTypesJson, "noticeTypesJson is null for sdkVersion=%s", sdkVersion);
+
+        this.sdkVersion = sdkVersion;
+        this.fieldsJson = fieldsJson;
+        this.fieldsAndNodes = new FieldsAndNodes(fieldsJson, sdkVersion);
+        this.xmlSortOrder = new SdkXmlSortOrder(fieldsAndNodes);
+        this.noticeTypesJson = noticeTypesJson;
+        this.noticeInfoBySubtype = Collections.unmodifiableMap(loadSdkNoticeTypeInfo(noticeTypesJson));
+        this.documentInfoByType = Collections.unmodifiableMap(parseDocumentTypes(noticeTypesJson));
+    }
+
+    public SdkVersion getSdkVersion() {
+        return sdkVersion;
+    }
+
+    public JsonNode getFieldsJson() {
+        return fieldsJson;
+    }
+
+    public FieldsAndNodes getFieldsAndNodes() {
+        return fieldsAndNodes;
+    }
+
+    public SdkXmlSortOrder getXmlSortOrder() {
+        return xmlSortOrder;
+    }
+
+    public JsonNode getNoticeTypesJson() {
+        return noticeTypesJson;
+    }
+
+    public Map<String, JsonNode> getNoticeInfoBySubtype() {
+        return noticeInfoBySubtype;
+    }
+
+    public Map<String, JsonNode> getDocumentInfoByType() {
+        return documentInfoByType;
+    }
+
+    public static Map<String, JsonNode> loadSdkNoticeTypeInfo(final JsonNode noticeTypesJson) {
+        final Map<String, JsonNode> noticeInfoBySubtype = new HashMap<>(512);
+        // TODO add "noticeSubTypes" to the SDK constants.
+        // SdkResource.NOTICE_SUB_TYPES
+        final JsonNode noticeSubTypes = noticeTypesJson.get("noticeSubTypes");
+        for (final JsonNode item : noticeSubTypes) {
+            // TODO add "subTypeId" to the SDK constants.
+            final String subTypeId = JsonUtils.getTextStrict(item, "subTypeId");
+            noticeInfoBySubtype.put(subTypeId, item);
+        }
+        return noticeInfoBySubtype;
+    }
+
+    public static Map<String, JsonNode> parseDocumentTypes(final JsonNode noticeTypesJson) {
+        final Map<String, JsonNode> documentInfoByType = new HashMap<>();
+        final JsonNode documentTypes =
+                noticeTypesJson.get(SdkConstants.NOTICE_TYPES_JSON_DOCUMENT_TYPES_KEY);
+        for (final JsonNode item : documentTypes) {
+            // TODO add document type "id" to the SDK constants. Maybe DOCUMENT_TYPE_ID.
+            final String id = JsonUtils.getTextStrict(item, "id");
+            documentInfoByType.put(id, item);
+        }
+        return documentInfoByType;
+    }
+}
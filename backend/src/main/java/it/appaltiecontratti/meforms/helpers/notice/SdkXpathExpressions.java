@@ -0,0 +1,91 @@
+package it.appaltiecontratti.meforms.helpers.notice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Espressioni XPath compilate per una versione SDK e per il relativo insieme di namespace, con
+ * chiave il testo dell'espressione (es. "cac:ProcurementProject").
+ * </p>
+ *
+ * <p>
+ * L'istanza {@link XPath} usata per la compilazione non e' thread-safe, per cui la compilazione
+ * avviene in modo sincronizzato. Le espressioni compilate da Saxon creano un nuovo contesto
+ * dinamico ad ogni valutazione e possono essere valutate in parallelo da piu' richieste.
+ * </p>
+ */
+@Slf4j
+public class SdkXpathExpressions {
+
+    private final String sdkKey;
+    private final XPath xpathInst;
+    private final Map<String, XPathExpression> expressionMap;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Timer compileTimer;
+
+    /**
+     * @param sdkKey       Identificativo della cache, usato nei log
+     * @param xpathInst    Istanza XPath con i namespace della versione SDK, usata solo per compilare
+     * @param expectedSize Numero atteso di espressioni distinte
+     * @param hitCounter   Contatore delle espressioni trovate in cache
+     * @param missCounter  Contatore delle espressioni da compilare
+     * @param compileTimer Tempo di compilazione delle espressioni
+     */
+    SdkXpathExpressions(final String sdkKey, final XPath xpathInst, final int expectedSize,
+                        final Counter hitCounter, final Counter missCounter, final Timer compileTimer) {
+        this.sdkKey = sdkKey;
+        this.xpathInst = xpathInst;
+        this.expressionMap = new ConcurrentHashMap<>(expectedSize);
+        this.hitCounter = hitCounter;
+        this.missCounter = missCounter;
+        this.compileTimer = compileTimer;
+    }
+
+    /**
+     * @param xpathExpr Il testo dell'espressione XPath
+     * @return L'espressione compilata, compilandola alla prima richiesta
+     */
+    public XPathExpression get(final String xpathExpr) {
+        Validate.notBlank(xpathExpr, "xpathExpr is blank for sdk=%s", sdkKey);
+
+        final XPathExpression cached = expressionMap.get(xpathExpr);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        missCounter.increment();
+        return expressionMap.computeIfAbsent(xpathExpr, this::compile);
+    }
+
+    public int size() {
+        return expressionMap.size();
+    }
+
+    private XPathExpression compile(final String xpathExpr) {
+        return compileTimer.record(() -> {
+            synchronized (xpathInst) {
+                try {
+                    return xpathInst.compile(xpathExpr);
+                } catch (XPathExpressionException e) {
+                    log.error("Problem compiling xpathExpr={}, sdk={}", xpathExpr, sdkKey);
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+}
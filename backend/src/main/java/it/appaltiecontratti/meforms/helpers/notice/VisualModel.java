@@ -6,8 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import it.appaltiecontratti.meforms.exceptions.HandledGroupException;
-import it.appaltiecontratti.meforms.helpers.exclusion.ApplicationConfiguration;
-import it.appaltiecontratti.meforms.helpers.exclusion.ExclusionItem;
+import it.appaltiecontratti.meforms.helpers.exclusion.ExclusionRules;
 import it.appaltiecontratti.meforms.util.DateTimeUtils;
 import it.appaltiecontratti.meforms.util.JavaTools;
 import it.appaltiecontratti.meforms.util.JsonUtils;
@@ -26,7 +25,6 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * @author Cristiano Perin <cristiano.perin@akera.it>
@@ -67,36 +65,30 @@ public class VisualModel {
      */
     private final boolean skipIfNoValue;
 
-    // Mappa di configurazione per esclusione di campi in determinati gruppi
-    private static Map<String, List<String>> exclusionFieldMap = new HashMap<>();
+    // Regole di esclusione di campi in determinati gruppi, immutabili e condivise tra le richieste
+    private final ExclusionRules exclusionRules;
 
     /**
      * @param visRoot The visual model as JSON, usually set from a user interface.
      */
-    public VisualModel(final JsonNode visRoot, final boolean skipIfNoValue, final ApplicationConfiguration applicationConfiguration) {
+    public VisualModel(final JsonNode visRoot, final boolean skipIfNoValue, final ExclusionRules exclusionRules) {
         final String rootNodeId = JsonUtils.getTextStrict(visRoot, VIS_NODE_ID);
         final String expected = ConceptualModel.ND_ROOT;
         Validate.isTrue(expected.equals(rootNodeId), "Visual model root must be %s", expected);
         this.visRoot = visRoot;
         this.skipIfNoValue = skipIfNoValue;
-        VisualModel.exclusionFieldMap = this.convertExclusionListToMap(applicationConfiguration.getExclusion());
+        this.exclusionRules = Validate.notNull(exclusionRules, "exclusionRules is null");
         getNoticeSubType(); // This must not crash.
     }
 
-    public VisualModel(final JsonNode visRoot, final ApplicationConfiguration applicationConfiguration) {
-        this(visRoot, false, applicationConfiguration);
-    }
-
-    private Map<String, List<String>> convertExclusionListToMap(final List<ExclusionItem> exclusionItemList) {
-        return exclusionItemList.stream()
-                .collect(Collectors.toMap(ExclusionItem::getGroupName, ExclusionItem::getFields));
+    public VisualModel(final JsonNode visRoot, final ExclusionRules exclusionRules) {
+        this(visRoot, false, exclusionRules);
     }
 
     @Override
     public String toString() {
         try {
-            return JsonUtils.getStandardJacksonObjectMapper().writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(visRoot);
+            return JsonUtils.getPrettyWriter().writeValueAsString(visRoot);
         } catch (JsonProcessingException ex) {
             throw new RuntimeException(ex);
         }
@@ -220,7 +212,7 @@ public class VisualModel {
         final StringBuilder sb = new StringBuilder(512);
 
         // This is located in this class as most of the code is about reading the visual model.
-        parseVisualModelRec(fieldsAndNodes, visRoot, fakeConceptRoot, skipIfNoValue, sb, timezone);
+        parseVisualModelRec(fieldsAndNodes, exclusionRules, visRoot, fakeConceptRoot, skipIfNoValue, sb, timezone);
 
         if (debug) {
             final Path path = Path.of("target", "debug");
@@ -348,7 +340,7 @@ public class VisualModel {
      * otherwise no action should be taken in the caller
      */
     private static void parseVisualModelRec(final FieldsAndNodes fieldsAndNodes,
-                                            final JsonNode jsonItem, final ConceptTreeNode closestParentNode,
+                                            final ExclusionRules exclusionRules, final JsonNode jsonItem, final ConceptTreeNode closestParentNode,
                                             final boolean skipIfNoValue, final StringBuilder sb, final TimeZone timezone) {
         Validate.notNull(closestParentNode, "closestParentNode is null, jsonItem=%s", jsonItem);
         Validate.notNull(jsonItem, "jsonNode is null, closestParentNode=%s", closestParentNode);
@@ -375,7 +367,7 @@ public class VisualModel {
         if (isNonField(visualType)) {
             sb.append('\n');
             sb.append("Group: ").append(visContentId).append('\n');
-            handleVisualGroup(fieldsAndNodes, jsonItem, closestParentNode, visContentId,
+            handleVisualGroup(fieldsAndNodes, exclusionRules, jsonItem, closestParentNode, visContentId,
                     skipIfNoValue, sb, timezone);
             return;
         }
@@ -503,7 +495,7 @@ public class VisualModel {
      * @param closestParentNode May be modified as a side effect.
      */
     private static void handleVisualGroup(final FieldsAndNodes fieldsAndNodes,
-                                          final JsonNode visualItem, final ConceptTreeNode closestParentNode, final String contentId,
+                                          final ExclusionRules exclusionRules, final JsonNode visualItem, final ConceptTreeNode closestParentNode, final String contentId,
                                           final boolean skipIfNoValue, final StringBuilder sb, final TimeZone timezone) {
 
         // This is a visual group (with or without nodeId).
@@ -517,7 +509,7 @@ public class VisualModel {
         //
         if (visualNodeIdOpt.isEmpty()) {
             sb.append("Visual node id: none").append('\n');
-            handleGroupWithoutNodeId(fieldsAndNodes, visualItem, closestParentNode, contentId, skipIfNoValue, sb, timezone);
+            handleGroupWithoutNodeId(fieldsAndNodes, exclusionRules, visualItem, closestParentNode, contentId, skipIfNoValue, sb, timezone);
         } else {
             sb.append("Visual node id: ").append(visualNodeIdOpt.get()).append('\n');
             //
@@ -526,7 +518,7 @@ public class VisualModel {
             // This is a group which references a node.
             // This group must be kept in the conceptual model.
             //
-            handleGroupWithNodeId(fieldsAndNodes, visualItem, closestParentNode, contentId,
+            handleGroupWithNodeId(fieldsAndNodes, exclusionRules, visualItem, closestParentNode, contentId,
                     visualNodeIdOpt.get(), skipIfNoValue, sb, timezone);
         }
     }
@@ -536,12 +528,12 @@ public class VisualModel {
     }
 
     private static void handleGroupWithNodeId(final FieldsAndNodes fieldsAndNodes,
-                                              final JsonNode visualItem, final ConceptTreeNode closestParentNode, final String visContentId,
+                                              final ExclusionRules exclusionRules, final JsonNode visualItem, final ConceptTreeNode closestParentNode, final String visContentId,
                                               final String sdkNodeId, final boolean skipIfNoValue, final StringBuilder sb, final TimeZone timezone) {
         Validate.notBlank(sdkNodeId, "sdkNodeId is blank for visContentId=%s", visContentId);
 
         try {
-            handleOptionalGroupsWithMandatoryFields(visContentId, visualItem);
+            handleOptionalGroupsWithMandatoryFields(exclusionRules, visContentId, visualItem);
         } catch (HandledGroupException e) {
             return;
         }
@@ -575,16 +567,16 @@ public class VisualModel {
         }
         final ArrayNode visChildren = (ArrayNode) childrenMaybeNull;
         for (final JsonNode visChild : visChildren) {
-            parseVisualModelRec(fieldsAndNodes, visChild, conceptNodeNew, skipIfNoValue, sb, timezone);
+            parseVisualModelRec(fieldsAndNodes, exclusionRules, visChild, conceptNodeNew, skipIfNoValue, sb, timezone);
         }
     }
 
     private static void handleGroupWithoutNodeId(final FieldsAndNodes fieldsAndNodes,
-                                                 final JsonNode visualItem, final ConceptTreeNode closestParentNode, final String visContentId,
+                                                 final ExclusionRules exclusionRules, final JsonNode visualItem, final ConceptTreeNode closestParentNode, final String visContentId,
                                                  final boolean skipIfNoValue, final StringBuilder sb, final TimeZone timezone) {
 
         try {
-            handleOptionalGroupsWithMandatoryFields(visContentId, visualItem);
+            handleOptionalGroupsWithMandatoryFields(exclusionRules, visContentId, visualItem);
         } catch (HandledGroupException e) {
             return;
         }
@@ -605,7 +597,7 @@ public class VisualModel {
 
         final ArrayNode visChildren = (ArrayNode) maybeNull;
         for (final JsonNode visChild : visChildren) {
-            parseVisualModelRec(fieldsAndNodes, visChild, closestParentNode, skipIfNoValue, sb, timezone);
+            parseVisualModelRec(fieldsAndNodes, exclusionRules, visChild, closestParentNode, skipIfNoValue, sb, timezone);
         }
     }
 
@@ -758,19 +750,22 @@ public class VisualModel {
      * Questi gruppi facoltativi vengono inseriti anche quando l'utente non compila manualmente i campi perche'
      * contengono campi con valori preselezionati dall'SDK TED oppure campi attributo (es. lingua)
      *
+     * @param exclusionRules regole di esclusione configurate
      * @param groupIdToCheck id del gruppo da verificare
      * @param visualItem     oggetto del gruppo da verificare
      */
-    private static void handleOptionalGroupsWithMandatoryFields(final String groupIdToCheck, final JsonNode visualItem) {
-        if (VisualModel.exclusionFieldMap.containsKey(groupIdToCheck)) {
-            // recupera tutti i campi da escludere per tale gruppo
-            List<JsonNode> fields = VisualModel.exclusionFieldMap.get(groupIdToCheck).stream()
-                    .map(field -> findNodeById(visualItem, field))
-                    .toList();
-
-            // se tutti i campi sono "blank", lancia l'eccezione
-            if (fields.stream()
-                    .allMatch(field -> StringUtils.isBlank(field.get(VIS_VALUE).asText(null)))
+    private static void handleOptionalGroupsWithMandatoryFields(final ExclusionRules exclusionRules,
+                                                                final String groupIdToCheck, final JsonNode visualItem) {
+        if (exclusionRules.hasRules(groupIdToCheck)) {
+            // recupera tutti i campi da escludere per tale gruppo con un'unica visita del sotto-albero
+            final Set<String> fieldIds = exclusionRules.getFields(groupIdToCheck);
+            final Map<String, JsonNode> fieldsByContentId = new HashMap<>(fieldIds.size() * 2);
+            indexByContentId(visualItem, fieldIds, fieldsByContentId);
+
+            // se tutti i campi sono "blank", lancia l'eccezione (un campo assente e' considerato "blank")
+            if (fieldIds.stream()
+                    .map(fieldsByContentId::get)
+                    .allMatch(field -> field == null || StringUtils.isBlank(field.path(VIS_VALUE).asText(null)))
             ) {
                 throw new HandledGroupException();
             }
@@ -778,31 +773,30 @@ public class VisualModel {
     }
 
     /**
-     * Metodo di utilita' per navigare l'albero del modello visuale (usato nel handleOptionalGroupsWithMandatoryFields)
+     * Metodo di utilita' che indicizza per contentId i nodi cercati nell'albero del modello visuale
+     * (usato nel handleOptionalGroupsWithMandatoryFields). Visita in profondita', per ogni id viene
+     * mantenuto il primo nodo trovato; la visita termina appena sono stati trovati tutti gli id.
      *
-     * @param root     gruppo radice
-     * @param targetId id campo da trovare
-     * @return il campo
+     * @param root      gruppo radice
+     * @param targetIds id dei campi da trovare
+     * @param result    mappa contentId -> campo, popolata come side effect
      */
-    private static JsonNode findNodeById(JsonNode root, String targetId) {
-        if (root == null || targetId == null) {
-            return null;
+    private static void indexByContentId(final JsonNode root, final Set<String> targetIds,
+                                         final Map<String, JsonNode> result) {
+        if (root == null || result.size() == targetIds.size()) {
+            return;
         }
 
-        if (targetId.equals(root.path("contentId").asText())) {
-            return root;
+        final String contentId = root.path(VIS_CONTENT_ID).asText();
+        if (targetIds.contains(contentId)) {
+            result.putIfAbsent(contentId, root);
         }
 
-        JsonNode children = root.path("children");
+        final JsonNode children = root.path(VIS_CHILDREN);
         if (children.isArray()) {
             for (JsonNode child : children) {
-                JsonNode result = findNodeById(child, targetId);
-                if (result != null) {
-                    return result;
-                }
+                indexByContentId(child, targetIds, result);
             }
         }
-
-        return null;
     }
 }
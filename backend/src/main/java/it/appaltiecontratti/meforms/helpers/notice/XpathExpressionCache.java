@@ -0,0 +1,94 @@
+package it.appaltiecontratti.meforms.helpers.notice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.appaltiecontratti.meforms.helpers.VersionHelper;
+import it.appaltiecontratti.meforms.util.XpathUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Cache thread-safe delle espressioni XPath compilate ({@link SdkXpathExpressions}), una per versione
+ * SDK e insieme di namespace del document type. Le parti delle xpath relative dei nodes, cercate nel
+ * modello fisico, vengono cosi' compilate una sola volta invece che ad ogni valutazione.
+ * </p>
+ */
+@Component
+@Slf4j
+public class XpathExpressionCache {
+
+    private static final String METRIC_CACHE = "meforms.xpath.cache";
+    private static final String METRIC_COMPILE = "meforms.xpath.compile";
+
+    private final Map<String, SdkXpathExpressions> expressionsMap = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public XpathExpressionCache(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param docTypeInfo    SDK document type info, fornisce versione SDK e namespace
+     * @param fieldsAndNodes I metadati SDK, usati per dimensionare la cache
+     * @return Le espressioni compilate per la versione SDK e i namespace del document type
+     */
+    public SdkXpathExpressions getExpressions(final DocumentTypeInfo docTypeInfo,
+                                              final FieldsAndNodes fieldsAndNodes) {
+        Validate.notNull(docTypeInfo, "docTypeInfo is null");
+        Validate.notNull(fieldsAndNodes, "fieldsAndNodes is null");
+
+        final String sdkKey = VersionHelper.buildSdkVersionWithoutPatch(docTypeInfo.getSdkVersion());
+        // I namespace sono definiti per document type, normalmente coincidono all'interno dell'SDK
+        final Map<String, String> namespaceUriByPrefix = docTypeInfo.buildAdditionalNamespaceUriByPrefix();
+        final String key = sdkKey + "|" + new TreeMap<>(namespaceUriByPrefix);
+
+        return expressionsMap.computeIfAbsent(key,
+                k -> createExpressions(sdkKey, docTypeInfo, namespaceUriByPrefix, fieldsAndNodes));
+    }
+
+    private SdkXpathExpressions createExpressions(final String sdkKey, final DocumentTypeInfo docTypeInfo,
+                                                  final Map<String, String> namespaceUriByPrefix,
+                                                  final FieldsAndNodes fieldsAndNodes) {
+        final int expectedSize = fieldsAndNodes.countDistinctNodeXpathParts();
+        log.info("Creating xpath expression cache for sdk: {}, expected expressions: {}", sdkKey, expectedSize);
+
+        final Counter hitCounter = Counter.builder(METRIC_CACHE)
+                .description("XPath expression cache lookups")
+                .tag("sdk", sdkKey)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        final Counter missCounter = Counter.builder(METRIC_CACHE)
+                .description("XPath expression cache lookups")
+                .tag("sdk", sdkKey)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        final Timer compileTimer = Timer.builder(METRIC_COMPILE)
+                .description("Time spent compiling XPath expressions")
+                .tag("sdk", sdkKey)
+                .register(meterRegistry);
+
+        final SdkXpathExpressions expressions = new SdkXpathExpressions(sdkKey,
+                XpathUtils.setupXpathInst(docTypeInfo, Optional.of(namespaceUriByPrefix)), expectedSize,
+                hitCounter, missCounter, compileTimer);
+
+        Gauge.builder(METRIC_CACHE + ".size", expressions, SdkXpathExpressions::size)
+                .description("Number of compiled XPath expressions in cache")
+                .tag("sdk", sdkKey)
+                .register(meterRegistry);
+
+        return expressions;
+    }
+}
@@ -0,0 +1,131 @@
+package it.appaltiecontratti.meforms.helpers.payload;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Valore JSON gia' serializzato in UTF-8, porzione di un array piu' grande (es. i dati di una
+ * {@link PreparedPayload}), inserito in altre risposte cosi' com'e'. Viene scritto come valore raw: il
+ * generatore UTF-8 copia i byte nel proprio buffer, senza conversioni in testo. Le forme quotate servono
+ * solo all'interfaccia e passano dal testo.
+ * </p>
+ */
+public final class JsonFragment implements JsonSerializable, SerializableString {
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    JsonFragment(final byte[] bytes, final int offset, final int length) {
+        Validate.notNull(bytes, "bytes is null");
+        Validate.isTrue(offset >= 0 && length > 0 && offset + length <= bytes.length, "Invalid fragment bounds");
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator gen, final SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(this);
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator gen, final SerializerProvider serializers,
+                                  final TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public String getValue() {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return new SerializedString(getValue()).asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return new SerializedString(getValue()).asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(final byte[] buffer, final int bufferOffset) {
+        return new SerializedString(getValue()).appendQuotedUTF8(buffer, bufferOffset);
+    }
+
+    @Override
+    public int appendQuoted(final char[] buffer, final int bufferOffset) {
+        return new SerializedString(getValue()).appendQuoted(buffer, bufferOffset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(final byte[] buffer, final int bufferOffset) {
+        if (bufferOffset + length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(bytes, offset, buffer, bufferOffset, length);
+        return length;
+    }
+
+    @Override
+    public int appendUnquoted(final char[] buffer, final int bufferOffset) {
+        return new SerializedString(getValue()).appendUnquoted(buffer, bufferOffset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(final OutputStream out) throws IOException {
+        return new SerializedString(getValue()).writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(final OutputStream out) throws IOException {
+        out.write(bytes, offset, length);
+        return length;
+    }
+
+    @Override
+    public int putQuotedUTF8(final ByteBuffer buffer) {
+        return new SerializedString(getValue()).putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(final ByteBuffer buffer) {
+        if (length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(bytes, offset, length);
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonFragment[" + length + " bytes]";
+    }
+}
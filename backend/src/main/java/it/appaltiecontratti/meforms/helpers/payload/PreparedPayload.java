@@ -0,0 +1,92 @@
+package it.appaltiecontratti.meforms.helpers.payload;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Risposta serializzata una sola volta e conservata sia non compressa sia compressa gzip, con i due
+ * ETag forti delle rappresentazioni. I byte non devono essere modificati: vengono serviti cosi' come sono
+ * a tutte le richieste (vedi {@link PreparedPayloadResponses}).
+ * </p>
+ */
+public final class PreparedPayload {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String identityEtag;
+    private final String gzipEtag;
+    // Posizione dei dati nella risposta non compressa, -1 se non registrata
+    private final int dataOffset;
+    private final int dataLength;
+
+    PreparedPayload(final byte[] identity, final byte[] gzip, final String etagValue) {
+        this(identity, gzip, etagValue, -1, -1);
+    }
+
+    PreparedPayload(final byte[] identity, final byte[] gzip, final String etagValue, final int dataOffset,
+                    final int dataLength) {
+        Validate.notNull(identity, "identity is null");
+        Validate.notNull(gzip, "gzip is null");
+        Validate.notBlank(etagValue, "etagValue is blank");
+        this.identity = identity;
+        this.gzip = gzip;
+        // Rappresentazioni diverse hanno ETag forti diversi
+        this.identityEtag = "\"" + etagValue + "\"";
+        this.gzipEtag = "\"" + etagValue + "-gzip\"";
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+
+    public byte[] getIdentity() {
+        return identity;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getIdentityEtag() {
+        return identityEtag;
+    }
+
+    public String getGzipEtag() {
+        return gzipEtag;
+    }
+
+    /**
+     * @param etag Un ETag ricevuto dal client, con o senza virgolette e prefisso "W/"
+     * @return true se corrisponde a una delle due rappresentazioni
+     */
+    public boolean matchesEtag(final String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String value = etag.strip();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (!value.startsWith("\"")) {
+            value = "\"" + value + "\"";
+        }
+        return identityEtag.equals(value) || gzipEtag.equals(value);
+    }
+
+    /**
+     * @return I dati della risposta senza il ResponseResult, letti dalla rappresentazione non compressa,
+     * per inserirli in altre risposte (vedi {@link PreparedPayloadFactory#ofEnvelopeWithData})
+     */
+    public JsonFragment getData() {
+        Validate.validState(dataOffset >= 0, "Data position not recorded for payload %s", identityEtag);
+        return new JsonFragment(identity, dataOffset, dataLength);
+    }
+
+    /**
+     * @return La memoria occupata dalle due rappresentazioni in byte
+     */
+    public long sizeInBytes() {
+        return (long) identity.length + gzip.length;
+    }
+}
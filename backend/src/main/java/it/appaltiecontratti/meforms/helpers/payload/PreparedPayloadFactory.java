@@ -0,0 +1,137 @@
+package it.appaltiecontratti.meforms.helpers.payload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import it.appaltiecontratti.meforms.domain.ResponseResult;
+import org.apache.commons.lang3.Validate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Costruzione delle {@link PreparedPayload}. I dati vengono racchiusi nello stesso {@link ResponseResult}
+ * aggiunto da ResponseBodyHandler e serializzati con l'ObjectMapper dei codec WebFlux, per cui i byte
+ * coincidono con quelli della risposta serializzata ad ogni richiesta.
+ * </p>
+ */
+@Component
+public class PreparedPayloadFactory {
+
+    // Lunghezza in caratteri esadecimali dell'hash del contenuto nell'ETag
+    private static final int ETAG_HASH_LENGTH = 16;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter envelopeWriter;
+
+    public PreparedPayloadFactory(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.envelopeWriter = objectMapper.writerFor(ResponseResult.class);
+    }
+
+    /**
+     * @param data       I dati della risposta, racchiusi in un {@link ResponseResult} con esito positivo
+     * @param etagPrefix Identificativo della risorsa (es. versione SDK, lingua e id della codelist)
+     * @return La risposta serializzata, non compressa e compressa
+     */
+    public PreparedPayload ofEnvelope(final Object data, final String etagPrefix) {
+        try {
+            return ofJson(envelopeWriter.writeValueAsBytes(new ResponseResult<>(true, null, data)), etagPrefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error serializing payload " + etagPrefix, e);
+        }
+    }
+
+    /**
+     * Come {@link #ofEnvelope(Object, String)}, registrando la posizione dei dati nella risposta: i dati
+     * possono poi essere inseriti in altre risposte con {@link PreparedPayload#getData()}, senza conservarne
+     * una copia serializzata a parte.
+     *
+     * @param data       I dati della risposta
+     * @param etagPrefix Identificativo della risorsa
+     * @return La risposta serializzata, non compressa e compressa
+     */
+    public PreparedPayload ofEnvelopeWithData(final Object data, final String etagPrefix) {
+        Validate.notBlank(etagPrefix, "etagPrefix is blank");
+        try {
+            // I dati vengono serializzati una volta e copiati nel ResponseResult, per poi ritrovarli nei byte
+            final byte[] dataJson = objectMapper.writeValueAsBytes(data);
+            final byte[] json = envelopeWithData(dataJson);
+            final int dataOffset = indexOf(json, dataJson);
+            Validate.validState(dataOffset >= 0, "Data not found in payload %s", etagPrefix);
+            return new PreparedPayload(json, gzip(json), etagPrefix + "-" + hash(json), dataOffset, dataJson.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error serializing payload " + etagPrefix, e);
+        }
+    }
+
+    /**
+     * @param data       I dati della risposta
+     * @param etagPrefix Identificativo della risorsa
+     * @return L'ETag della risposta di {@link #ofEnvelopeWithData(Object, String)}, senza comprimerla
+     * ne' conservarla
+     */
+    public String etagOfEnvelopeWithData(final Object data, final String etagPrefix) {
+        Validate.notBlank(etagPrefix, "etagPrefix is blank");
+        try {
+            return etagPrefix + "-" + hash(envelopeWithData(objectMapper.writeValueAsBytes(data)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error serializing payload " + etagPrefix, e);
+        }
+    }
+
+    private byte[] envelopeWithData(final byte[] dataJson) throws IOException {
+        return envelopeWriter.writeValueAsBytes(new ResponseResult<>(true, null, new JsonFragment(dataJson, 0, dataJson.length)));
+    }
+
+    /**
+     * @param json       Il json gia' serializzato in UTF-8
+     * @param etagPrefix Identificativo della risorsa
+     * @return La risposta non compressa e compressa
+     */
+    public PreparedPayload ofJson(final byte[] json, final String etagPrefix) {
+        Validate.notNull(json, "json is null");
+        Validate.notBlank(etagPrefix, "etagPrefix is blank");
+        // Il contenuto fa parte dell'ETag: cambia se cambiano i file dell'SDK a parita' di versione
+        return new PreparedPayload(json, gzip(json), etagPrefix + "-" + hash(json));
+    }
+
+    static byte[] gzip(final byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(512, data.length / 4));
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(out)) {
+            gzipOutputStream.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // I dati seguono un prefisso di pochi byte ({"done":true,"data":), il confronto si ferma subito altrove
+    private static int indexOf(final byte[] array, final byte[] target) {
+        for (int i = 0; i + target.length <= array.length; i++) {
+            if (Arrays.equals(array, i, i + target.length, target, 0, target.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String hash(final byte[] data) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest).substring(0, ETAG_HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package it.appaltiecontratti.meforms.helpers.payload;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Risposte HTTP a partire da una {@link PreparedPayload}: la rappresentazione gzip viene servita ai client
+ * che la accettano, l'altra a tutti gli altri. I byte vengono solo avvolti nel buffer della risposta,
+ * senza copie ne' serializzazioni.
+ * </p>
+ *
+ * <p>
+ * La risposta e' una {@link ResponseEntity} con ETag: non viene quindi racchiusa da ResponseBodyHandler
+ * (il payload contiene gia' il ResponseResult) e per le richieste con If-None-Match corrispondente
+ * WebFlux risponde 304 senza corpo.
+ * </p>
+ */
+public final class PreparedPayloadResponses {
+
+    private static final String GZIP = "gzip";
+
+    private PreparedPayloadResponses() {
+        throw new AssertionError("Utility class.");
+    }
+
+    /**
+     * @param payload  La risposta serializzata
+     * @param exchange Lo scambio HTTP corrente
+     * @return La risposta JSON, compressa se accettato dal client
+     */
+    public static ResponseEntity<DataBuffer> ok(final PreparedPayload payload, final ServerWebExchange exchange) {
+        return ok(payload, exchange, MediaType.APPLICATION_JSON, CacheControl.noCache());
+    }
+
+    /**
+     * @param payload      La risposta serializzata
+     * @param exchange     Lo scambio HTTP corrente
+     * @param contentType  Il content type della risposta
+     * @param cacheControl La politica di cache della risposta
+     * @return La risposta, compressa se accettato dal client
+     */
+    public static ResponseEntity<DataBuffer> ok(final PreparedPayload payload, final ServerWebExchange exchange,
+                                                final MediaType contentType, final CacheControl cacheControl) {
+        final boolean gzip = acceptsGzip(exchange.getRequest());
+        final byte[] body = gzip ? payload.getGzip() : payload.getIdentity();
+
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(contentType)
+                .cacheControl(cacheControl)
+                .eTag(gzip ? payload.getGzipEtag() : payload.getIdentityEtag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentLength(body.length);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return builder.body(exchange.getResponse().bufferFactory().wrap(body));
+    }
+
+    /**
+     * @param request La richiesta HTTP
+     * @return true se l'header Accept-Encoding contiene gzip con qualita' diversa da zero
+     */
+    static boolean acceptsGzip(final ServerHttpRequest request) {
+        final List<String> values = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+        if (values == null) {
+            return false;
+        }
+        // gzip esplicito prevale sul carattere jolly
+        boolean wildcard = false;
+        for (final String value : values) {
+            for (final String coding : value.split(",")) {
+                final String[] parts = coding.split(";");
+                final String name = parts[0].trim();
+                final boolean accepted = parts.length < 2 || !isZeroQuality(parts[1]);
+                if (GZIP.equalsIgnoreCase(name)) {
+                    return accepted;
+                }
+                if ("*".equals(name)) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean isZeroQuality(final String parameter) {
+        final String param = parameter.trim();
+        if (!param.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(param.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package it.appaltiecontratti.meforms.helpers.snapshot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Snapshot precompilato di una versione SDK, mappato in memoria in sola lettura. All'apertura viene
+ * letto solo l'indice delle voci; ogni valore viene decodificato alla richiesta.
+ * </p>
+ *
+ * <p>
+ * Formato: "MEFSNAP" + versione del formato, checksum dei file SDK, indice (chiave, offset, lunghezza)
+ * e infine i valori codificati da {@link SnapshotCodec}. L'istanza e' thread-safe.
+ * </p>
+ */
+public class SdkSnapshot {
+
+    static final byte[] MAGIC = {'M', 'E', 'F', 'S', 'N', 'A', 'P'};
+    static final int FORMAT_VERSION = 1;
+
+    private record Slot(int offset, int length) {
+    }
+
+    private final Path path;
+    private final String checksum;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Slot> slotByKey;
+
+    private SdkSnapshot(final Path path, final String checksum, final MappedByteBuffer buffer,
+                        final Map<String, Slot> slotByKey) {
+        this.path = path;
+        this.checksum = checksum;
+        this.buffer = buffer;
+        this.slotByKey = slotByKey;
+    }
+
+    /**
+     * @param path Il file dello snapshot
+     * @return Lo snapshot mappato in memoria
+     * @throws IOException           Se il file non e' leggibile
+     * @throws IllegalStateException Se il file non e' uno snapshot o e' di un'altra versione del formato
+     */
+    public static SdkSnapshot open(final Path path) throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Validate.validState(channel.size() <= Integer.MAX_VALUE, "Snapshot too large: %s", path);
+            // La mappatura resta valida anche dopo la chiusura del canale
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final ByteBuffer header = buffer.duplicate();
+        final byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        Validate.validState(Arrays.equals(MAGIC, magic), "Not a snapshot: %s", path);
+        final int formatVersion = header.getInt();
+        Validate.validState(formatVersion == FORMAT_VERSION, "Unsupported snapshot format %s: %s", formatVersion, path);
+        final String checksum = SnapshotCodec.readString(header);
+
+        final int entryCount = SnapshotCodec.readVarInt(header);
+        final Map<String, Slot> slotByKey = new HashMap<>(entryCount * 4 / 3 + 1);
+        for (int i = 0; i < entryCount; i++) {
+            slotByKey.put(SnapshotCodec.readString(header), new Slot(header.getInt(), header.getInt()));
+        }
+        final int dataStart = header.position();
+        slotByKey.replaceAll((key, slot) -> new Slot(dataStart + slot.offset(), slot.length()));
+        Validate.validState(slotByKey.values().stream().allMatch(slot -> slot.offset() + slot.length() <= buffer.limit()),
+                "Truncated snapshot: %s", path);
+
+        return new SdkSnapshot(path, checksum, buffer, slotByKey);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public int size() {
+        return slotByKey.size();
+    }
+
+    public boolean contains(final String key) {
+        return slotByKey.containsKey(key);
+    }
+
+    /**
+     * @return L'albero JSON salvato con la chiave, null se assente
+     */
+    public JsonNode getJson(final String key) {
+        final ByteBuffer value = slice(key);
+        return value != null ? SnapshotCodec.decodeJson(value) : null;
+    }
+
+    /**
+     * @return La mappa di testi salvata con la chiave, null se assente
+     */
+    public Map<String, String> getStringMap(final String key) {
+        final ByteBuffer value = slice(key);
+        return value != null ? SnapshotCodec.decodeStringMap(value) : null;
+    }
+
+    // Vista indipendente sul valore: posizione propria per ogni lettura concorrente
+    private ByteBuffer slice(final String key) {
+        final Slot slot = slotByKey.get(key);
+        return slot != null ? buffer.slice(slot.offset(), slot.length()) : null;
+    }
+}
@@ -0,0 +1,142 @@
+package it.appaltiecontratti.meforms.helpers.snapshot;
+
+import eu.europa.ted.eforms.sdk.SdkConstants;
+import eu.europa.ted.eforms.sdk.SdkVersion;
+import eu.europa.ted.eforms.sdk.resource.SdkResourceLoader;
+import it.appaltiecontratti.meforms.helpers.SdkSnapshotConfig;
+import it.appaltiecontratti.meforms.helpers.VersionHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Gestione degli snapshot SDK su disco: un file "meforms-sdk-&lt;versione&gt;.snapshot" per versione,
+ * valido finche' il checksum dei file SDK da cui deriva (code lists, traduzioni, fields, notice types)
+ * e delle lingue supportate non cambia. Se il checksum differisce lo snapshot viene ricostruito; se non
+ * puo' essere scritto il servizio continua leggendo i file SDK.
+ * </p>
+ */
+@Component
+@Slf4j
+public class SdkSnapshotStore {
+
+    // Risorse SDK da cui derivano i valori dello snapshot
+    private static final List<SdkConstants.SdkResource> SOURCE_RESOURCES = List.of(
+            SdkConstants.SdkResource.CODELISTS,
+            SdkConstants.SdkResource.TRANSLATIONS,
+            SdkConstants.SdkResource.FIELDS,
+            SdkConstants.SdkResource.NOTICE_TYPES);
+
+    @Autowired
+    private SdkSnapshotConfig sdkSnapshotConfig;
+
+    /**
+     * @param sdkVersion   La versione SDK
+     * @param eformsSdkDir La cartella dell'SDK
+     * @param languages    Le lingue dei valori nello snapshot
+     * @param builder      Scrittura dei valori dello snapshot dai file SDK, se assente o non aggiornato
+     * @return Lo snapshot aggiornato, vuoto se disabilitato o se non e' stato possibile scriverlo
+     */
+    public Optional<SdkSnapshot> load(final SdkVersion sdkVersion, final Path eformsSdkDir,
+                                      final List<String> languages, final Consumer<SdkSnapshotWriter> builder) {
+        if (!sdkSnapshotConfig.isEnabled()) {
+            return Optional.empty();
+        }
+        Validate.notNull(sdkVersion, "Undefined SDK version");
+
+        final long start = System.nanoTime();
+        final Path path = Path.of(sdkSnapshotConfig.getPath())
+                .resolve("meforms-sdk-" + VersionHelper.buildSdkVersionWithoutPatch(sdkVersion) + ".snapshot");
+        final String checksum = computeChecksum(sdkVersion, eformsSdkDir, languages);
+
+        if (Files.isRegularFile(path)) {
+            try {
+                final SdkSnapshot snapshot = SdkSnapshot.open(path);
+                if (checksum.equals(snapshot.getChecksum())) {
+                    log.info("Loaded SDK snapshot: {} with {} entries in {} ms", path, snapshot.size(), elapsedMillis(start));
+                    return Optional.of(snapshot);
+                }
+                log.info("SDK snapshot: {} is out of date, it will be rebuilt", path);
+            } catch (IOException | RuntimeException e) {
+                log.warn("SDK snapshot: {} is not readable, it will be rebuilt", path, e);
+            }
+        }
+
+        if (!Files.isWritable(path.toAbsolutePath().getParent())) {
+            log.warn("SDK snapshot folder is not writable: {}, the SDK files will be parsed at every start",
+                    path.toAbsolutePath().getParent());
+            return Optional.empty();
+        }
+
+        try {
+            try (SdkSnapshotWriter writer = new SdkSnapshotWriter(path.toAbsolutePath().getParent())) {
+                builder.accept(writer);
+                writer.writeTo(path, checksum);
+            }
+            final SdkSnapshot snapshot = SdkSnapshot.open(path);
+            log.info("Built SDK snapshot: {} with {} entries in {} ms", path, snapshot.size(), elapsedMillis(start));
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to build SDK snapshot: {}, the SDK files will be parsed", path, e);
+            return Optional.empty();
+        }
+    }
+
+    // SHA-256 di formato, lingue e, in ordine di percorso, nome e contenuto dei file sorgente
+    private static String computeChecksum(final SdkVersion sdkVersion, final Path eformsSdkDir,
+                                          final List<String> languages) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(("format=" + SdkSnapshot.FORMAT_VERSION + ";languages=" + languages.stream().sorted().toList())
+                .getBytes(StandardCharsets.UTF_8));
+
+        final byte[] buffer = new byte[64 * 1024];
+        for (final SdkConstants.SdkResource resource : SOURCE_RESOURCES) {
+            final Path dir = SdkResourceLoader.getResourceAsPath(sdkVersion, resource, eformsSdkDir);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (final Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    digest.update(eformsSdkDir.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                        while (in.read(buffer) != -1) {
+                            // Il contenuto viene aggiunto al digest durante la lettura
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
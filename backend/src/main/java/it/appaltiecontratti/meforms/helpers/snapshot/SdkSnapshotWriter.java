@@ -0,0 +1,111 @@
+package it.appaltiecontratti.meforms.helpers.snapshot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.Validate;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Costruzione di uno {@link SdkSnapshot}: i valori vengono codificati all'inserimento e accodati subito
+ * a un file temporaneo, in memoria resta solo l'indice. Lo snapshot viene scritto accanto alla destinazione
+ * (intestazione, indice e valori copiati dal file temporaneo) e poi rinominato, cosi' un'altra istanza
+ * non legge mai uno snapshot incompleto.
+ * </p>
+ *
+ * <p>
+ * I valori possono essere inseriti da piu' thread: la codifica avviene fuori dal lock.
+ * </p>
+ */
+public class SdkSnapshotWriter implements Closeable {
+
+    private record Slot(int offset, int length) {
+    }
+
+    private final Path valuesFile;
+    private final OutputStream values;
+    private final Map<String, Slot> slotByKey = new LinkedHashMap<>();
+    private long totalLength;
+
+    /**
+     * @param dir La cartella del file temporaneo dei valori, la stessa dello snapshot
+     */
+    SdkSnapshotWriter(final Path dir) throws IOException {
+        this.valuesFile = Files.createTempFile(dir, "meforms-sdk-", ".values.tmp");
+        this.values = new BufferedOutputStream(Files.newOutputStream(valuesFile), 64 * 1024);
+    }
+
+    public void putJson(final String key, final JsonNode node) {
+        put(key, SnapshotCodec.encodeJson(node));
+    }
+
+    public void putStringMap(final String key, final Map<String, String> map) {
+        put(key, SnapshotCodec.encodeStringMap(map));
+    }
+
+    public synchronized int size() {
+        return slotByKey.size();
+    }
+
+    /**
+     * @param path     Il file da scrivere, sostituito se presente
+     * @param checksum Il checksum dei file SDK da cui derivano i valori
+     */
+    public synchronized void writeTo(final Path path, final String checksum) throws IOException {
+        values.flush();
+        final Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                out.write(SdkSnapshot.MAGIC);
+                out.writeInt(SdkSnapshot.FORMAT_VERSION);
+                SnapshotCodec.writeString(out, checksum);
+
+                SnapshotCodec.writeVarInt(out, slotByKey.size());
+                for (final Map.Entry<String, Slot> entry : slotByKey.entrySet()) {
+                    SnapshotCodec.writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().offset());
+                    out.writeInt(entry.getValue().length());
+                }
+                Files.copy(valuesFile, out);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            values.close();
+        } finally {
+            Files.deleteIfExists(valuesFile);
+        }
+    }
+
+    private synchronized void put(final String key, final byte[] value) {
+        Validate.notBlank(key, "key is blank");
+        Validate.validState(!slotByKey.containsKey(key), "Duplicate snapshot key=%s", key);
+        Validate.validState(totalLength + value.length <= Integer.MAX_VALUE, "Snapshot too large");
+        try {
+            values.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        slotByKey.put(key, new Slot((int) totalLength, value.length));
+        totalLength += value.length;
+    }
+}
@@ -0,0 +1,224 @@
+package it.appaltiecontratti.meforms.helpers.snapshot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.appaltiecontratti.meforms.util.JsonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Codifica binaria compatta dei valori dello snapshot SDK: alberi JSON (code lists, fields.json,
+ * notice-types.json) e mappe di testi (traduzioni). Le stringhe sono in UTF-8 precedute dalla lunghezza
+ * in formato varint; i nomi dei campi JSON vengono scritti una sola volta per valore e poi referenziati
+ * per indice, dato che si ripetono in ogni riga (es. "codeValue", "parentCode").
+ * </p>
+ */
+final class SnapshotCodec {
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_ARRAY = 7;
+    private static final int TAG_OBJECT = 8;
+    private static final int TAG_BIG_INTEGER = 9;
+    private static final int TAG_BIG_DECIMAL = 10;
+
+    private SnapshotCodec() {
+        throw new AssertionError("Utility class.");
+    }
+
+    static byte[] encodeJson(final JsonNode node) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeJson(out, node, new HashMap<>());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JsonNode decodeJson(final ByteBuffer in) {
+        return readJson(in, JsonUtils.getNodeFactory(), new ArrayList<>());
+    }
+
+    static byte[] encodeStringMap(final Map<String, String> map) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeVarInt(out, map.size());
+            for (final Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Map<String, String> decodeStringMap(final ByteBuffer in) {
+        final int size = readVarInt(in);
+        final Map<String, String> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    static int readVarInt(final ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in snapshot");
+    }
+
+    static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    static String readString(final ByteBuffer in) {
+        final byte[] utf8 = new byte[readVarInt(in)];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeJson(final DataOutputStream out, final JsonNode node,
+                                  final Map<String, Integer> nameIndex) throws IOException {
+        switch (node.getNodeType()) {
+            case OBJECT -> {
+                out.writeByte(TAG_OBJECT);
+                writeVarInt(out, node.size());
+                final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    final Map.Entry<String, JsonNode> field = fields.next();
+                    // 0 = nome nuovo seguito dal testo, altrimenti indice + 1 di un nome gia' scritto
+                    final Integer index = nameIndex.get(field.getKey());
+                    if (index == null) {
+                        writeVarInt(out, 0);
+                        writeString(out, field.getKey());
+                        nameIndex.put(field.getKey(), nameIndex.size());
+                    } else {
+                        writeVarInt(out, index + 1);
+                    }
+                    writeJson(out, field.getValue(), nameIndex);
+                }
+            }
+            case ARRAY -> {
+                out.writeByte(TAG_ARRAY);
+                writeVarInt(out, node.size());
+                for (final JsonNode item : node) {
+                    writeJson(out, item, nameIndex);
+                }
+            }
+            case STRING -> {
+                out.writeByte(TAG_STRING);
+                writeString(out, node.textValue());
+            }
+            case BOOLEAN -> out.writeByte(node.booleanValue() ? TAG_TRUE : TAG_FALSE);
+            case NUMBER -> writeNumber(out, node);
+            case NULL, MISSING -> out.writeByte(TAG_NULL);
+            default -> {
+                // BINARY e POJO non sono presenti nei file dell'SDK, vengono conservati come testo
+                out.writeByte(TAG_STRING);
+                writeString(out, node.asText());
+            }
+        }
+    }
+
+    private static void writeNumber(final DataOutputStream out, final JsonNode node) throws IOException {
+        if (node.isInt() || node.isShort()) {
+            out.writeByte(TAG_INT);
+            out.writeInt(node.intValue());
+        } else if (node.isLong()) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(node.longValue());
+        } else if (node.isBigInteger()) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeString(out, node.bigIntegerValue().toString());
+        } else if (node.isBigDecimal()) {
+            out.writeByte(TAG_BIG_DECIMAL);
+            writeString(out, node.decimalValue().toString());
+        } else {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(node.doubleValue());
+        }
+    }
+
+    private static JsonNode readJson(final ByteBuffer in, final JsonNodeFactory factory, final List<String> names) {
+        final int tag = in.get();
+        return switch (tag) {
+            case TAG_OBJECT -> {
+                final int size = readVarInt(in);
+                final ObjectNode object = factory.objectNode();
+                for (int i = 0; i < size; i++) {
+                    final int ref = readVarInt(in);
+                    final String name;
+                    if (ref == 0) {
+                        name = readString(in);
+                        names.add(name);
+                    } else {
+                        name = names.get(ref - 1);
+                    }
+                    object.set(name, readJson(in, factory, names));
+                }
+                yield object;
+            }
+            case TAG_ARRAY -> {
+                final int size = readVarInt(in);
+                final ArrayNode array = factory.arrayNode(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(readJson(in, factory, names));
+                }
+                yield array;
+            }
+            case TAG_STRING -> factory.textNode(readString(in));
+            case TAG_TRUE -> factory.booleanNode(true);
+            case TAG_FALSE -> factory.booleanNode(false);
+            case TAG_INT -> factory.numberNode(in.getInt());
+            case TAG_LONG -> factory.numberNode(in.getLong());
+            case TAG_DOUBLE -> factory.numberNode(in.getDouble());
+            case TAG_BIG_INTEGER -> factory.numberNode(new BigInteger(readString(in)));
+            case TAG_BIG_DECIMAL -> factory.numberNode(new BigDecimal(readString(in)));
+            case TAG_NULL -> factory.nullNode();
+            default -> throw new IllegalStateException("Unknown tag in snapshot: " + tag);
+        };
+    }
+}
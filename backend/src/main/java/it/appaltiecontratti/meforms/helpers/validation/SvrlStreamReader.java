@@ -0,0 +1,149 @@
+package it.appaltiecontratti.meforms.helpers.validation;
+
+import it.appaltiecontratti.meforms.dto.validationCvs.DiagnosticReference;
+import it.appaltiecontratti.meforms.dto.validationCvs.FailedAssert;
+import it.appaltiecontratti.meforms.dto.validationCvs.FiredRule;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Lettore StAX incrementale del report SVRL restituito dalla validazione CVS. Ad ogni chiamata di
+ * {@link #nextItem()} restituisce il successivo "failed-assert" o "fired-rule" senza mantenere in
+ * memoria quelli gia' letti.
+ * </p>
+ *
+ * <p>
+ * Non e' thread-safe: un'istanza per report.
+ * </p>
+ */
+public class SvrlStreamReader implements AutoCloseable {
+
+    private static final String FAILED_ASSERT = "failed-assert";
+    private static final String FIRED_RULE = "fired-rule";
+    private static final String TEXT = "text";
+    private static final String DIAGNOSTIC_REFERENCE = "diagnostic-reference";
+
+    // La factory e' thread-safe una volta configurata
+    private static final XMLInputFactory XML_INPUT_FACTORY = buildXmlInputFactory();
+
+    private final XMLStreamReader reader;
+    private int failedAssertCount;
+    private int firedRuleCount;
+
+    public SvrlStreamReader(final String svrlXml) throws XMLStreamException {
+        this.reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(svrlXml));
+    }
+
+    private static XMLInputFactory buildXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        // SECURITY: nessuna DTD ne' entita' esterne
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    /**
+     * @return il successivo {@link FailedAssert} o {@link FiredRule} del report, null a fine documento
+     */
+    public Object nextItem() throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                final String localName = reader.getLocalName();
+                if (FAILED_ASSERT.equals(localName)) {
+                    failedAssertCount++;
+                    return readFailedAssert();
+                }
+                if (FIRED_RULE.equals(localName)) {
+                    firedRuleCount++;
+                    return new FiredRule(reader.getAttributeValue(null, "context"));
+                }
+            }
+        }
+        return null;
+    }
+
+    public int getFailedAssertCount() {
+        return failedAssertCount;
+    }
+
+    public int getFiredRuleCount() {
+        return firedRuleCount;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+
+    private FailedAssert readFailedAssert() throws XMLStreamException {
+        final FailedAssert failedAssert = new FailedAssert();
+        failedAssert.setId(reader.getAttributeValue(null, "id"));
+        failedAssert.setLocation(reader.getAttributeValue(null, "location"));
+        failedAssert.setTest(reader.getAttributeValue(null, "test"));
+        failedAssert.setRole(reader.getAttributeValue(null, "role"));
+
+        // Legge i figli fino alla chiusura del failed-assert
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && TEXT.equals(reader.getLocalName())) {
+                    failedAssert.setText(readText());
+                    continue; // readText si posiziona sull'END_ELEMENT di svrl:text
+                }
+                if (depth == 1 && DIAGNOSTIC_REFERENCE.equals(reader.getLocalName())) {
+                    mergeDiagnosticReference(failedAssert);
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return failedAssert;
+    }
+
+    // Testo dell'elemento corrente, compreso quello di eventuali elementi annidati
+    private String readText() throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            final int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                        text.append(reader.getText());
+                default -> {
+                    // commenti e processing instruction ignorati
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    // In caso di piu' diagnostic-reference vale l'ultimo valore presente per ogni attributo
+    private void mergeDiagnosticReference(final FailedAssert failedAssert) {
+        DiagnosticReference diagnosticReference = failedAssert.getDiagnosticReference();
+        if (diagnosticReference == null) {
+            diagnosticReference = new DiagnosticReference();
+            failedAssert.setDiagnosticReference(diagnosticReference);
+        }
+        final String diagnostic = reader.getAttributeValue(null, "diagnostic");
+        if (diagnostic != null) {
+            diagnosticReference.setDiagnostic(diagnostic);
+        }
+        final String see = reader.getAttributeValue(null, "see");
+        if (see != null) {
+            diagnosticReference.setSee(see);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package it.appaltiecontratti.meforms.helpers.validation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Cache thread-safe degli schema XSD compilati, con chiave il path dell'XSD principale. Uno
+ * {@link Schema} e' immutabile e condivisibile tra thread, mentre i {@link javax.xml.validation.Validator}
+ * vanno creati per ogni richiesta.
+ * </p>
+ */
+@Component
+@Slf4j
+public class XsdSchemaCache {
+
+    private static final String METRIC_CACHE = "meforms.xsd.schema.cache";
+    private static final String METRIC_COMPILE = "meforms.xsd.schema.compile";
+
+    private final Map<Path, CompiledSchema> schemaMap = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Timer compileTimer;
+
+    public XsdSchemaCache(final MeterRegistry meterRegistry) {
+        this.hitCounter = Counter.builder(METRIC_CACHE)
+                .description("XSD schema cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_CACHE)
+                .description("XSD schema cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.compileTimer = Timer.builder(METRIC_COMPILE)
+                .description("Time spent compiling XSD schemas")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_CACHE + ".size", schemaMap, Map::size)
+                .description("Number of compiled XSD schemas in cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restituisce lo schema compilato per l'XSD principale, compilandolo alla prima richiesta.
+     *
+     * @param mainXsdPath il path dell'XSD principale
+     * @return lo schema compilato e gli eventuali errori emersi durante la compilazione
+     */
+    public CompiledSchema getSchema(final Path mainXsdPath) throws SAXException {
+        Validate.notNull(mainXsdPath, "mainXsdPath is null");
+        final Path key = mainXsdPath.toAbsolutePath().normalize();
+
+        final CompiledSchema cached = schemaMap.get(key);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        missCounter.increment();
+        try {
+            return schemaMap.computeIfAbsent(key, this::compileWrapped);
+        } catch (SchemaCompileException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Compila in anticipo gli schema indicati, gli errori vengono solo loggati.
+     *
+     * @param mainXsdPaths i path degli XSD principali
+     */
+    public void warmUp(final Collection<Path> mainXsdPaths) {
+        mainXsdPaths.forEach(mainXsdPath -> {
+            try {
+                schemaMap.computeIfAbsent(mainXsdPath.toAbsolutePath().normalize(), this::compileWrapped);
+            } catch (SchemaCompileException e) {
+                log.error("Errore durante la compilazione dello schema XSD {}", mainXsdPath, e.getCause());
+            }
+        });
+        log.info("XSD schemas in cache: {}", schemaMap.size());
+    }
+
+    private CompiledSchema compileWrapped(final Path mainXsdPath) {
+        try {
+            return compileTimer.recordCallable(() -> compile(mainXsdPath));
+        } catch (SAXException e) {
+            throw new SchemaCompileException(e);
+        } catch (Exception e) {
+            throw new SchemaCompileException(new SAXException(e));
+        }
+    }
+
+    @SuppressWarnings("java:S2755")
+    private static CompiledSchema compile(final Path mainXsdPath) throws SAXException {
+        log.info("Compiling XSD schema: {}", mainXsdPath);
+
+        final SchemaFactory schemaFactory =
+                SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+        // Gli errori di compilazione vengono conservati e restituiti ad ogni validazione,
+        // come avveniva quando lo schema veniva compilato ad ogni richiesta.
+        final XsdCustomErrorHandler compileErrorHandler = new XsdCustomErrorHandler();
+
+        // schemaFactory.setResourceResolver(new ResourceResolver);
+        schemaFactory.setErrorHandler(compileErrorHandler);
+        schemaFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file");
+        schemaFactory.setFeature("http://apache.org/xml/features/honour-all-schemaLocations", true);
+
+        final Schema schema = schemaFactory.newSchema(mainXsdPath.toFile());
+        return new CompiledSchema(schema, List.copyOf(compileErrorHandler.getExceptions()));
+    }
+
+    /**
+     * Schema compilato con gli eventuali errori segnalati durante la compilazione.
+     */
+    public record CompiledSchema(Schema schema, List<SAXParseException> compileExceptions) {
+    }
+
+    /**
+     * Permette di propagare la SAXException fuori da {@link Map#computeIfAbsent}.
+     */
+    private static class SchemaCompileException extends RuntimeException {
+
+        SchemaCompileException(final SAXException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SAXException getCause() {
+            return (SAXException) super.getCause();
+        }
+    }
+}
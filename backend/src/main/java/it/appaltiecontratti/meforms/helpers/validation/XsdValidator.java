@@ -4,14 +4,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
-import javax.xml.XMLConstants;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.IOException;
 import java.io.StringReader;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,37 +21,26 @@ import java.util.List;
 @Slf4j
 public class XsdValidator {
 
-    public static List<SAXParseException> validateXml(final String xmlAsText, final Path mainXsdPath)
+    public static List<SAXParseException> validateXml(final String xmlAsText, final Path mainXsdPath,
+                                                      final XsdSchemaCache xsdSchemaCache)
             throws SAXException, IOException {
-        log.info(String.format("Attempting to validate using schema: {}", mainXsdPath));
+        log.info("Attempting to validate using schema: {}", mainXsdPath);
 
-        final XsdCustomErrorHandler xsdErrorHandler = new XsdCustomErrorHandler();
+        final XsdSchemaCache.CompiledSchema compiledSchema = xsdSchemaCache.getSchema(mainXsdPath);
 
         // validateUsingDom(xmlAsText, xsdErrorHandler);
-        validateUsingSchema(xmlAsText, mainXsdPath, xsdErrorHandler);
+        validateUsingSchema(xmlAsText, compiledSchema.schema());
 
-        // Show exceptions.
-        final List<SAXParseException> exceptions = xsdErrorHandler.getExceptions();
+        // Show exceptions, the ones collected while compiling the schema are part of the report.
+        final List<SAXParseException> exceptions = new ArrayList<>(compiledSchema.compileExceptions());
         exceptions.forEach(ex -> log.error(ex.getMessage()));
 
         return exceptions;
     }
 
-    @SuppressWarnings("java:S2755")
-    private static void validateUsingSchema(final String xmlAsText, final Path mainXsdPath,
-                                            final org.xml.sax.ErrorHandler xsdErrorHandler)
+    private static void validateUsingSchema(final String xmlAsText, final Schema schema)
             throws SAXException, IOException {
-
-        final SchemaFactory schemaFactory =
-                SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-
-        // schemaFactory.setResourceResolver(new ResourceResolver);
-        schemaFactory.setErrorHandler(xsdErrorHandler);
-        schemaFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file");
-        schemaFactory.setFeature("http://apache.org/xml/features/honour-all-schemaLocations", true);
-
-        final Schema schema = schemaFactory.newSchema(mainXsdPath.toFile());
+        // Lo schema e' condiviso, il validator no: va creato per ogni validazione
         final Validator validator = schema.newValidator();
         validator.validate(new StreamSource(new StringReader(xmlAsText)));
     }
@@ -1,13 +1,17 @@
 package it.appaltiecontratti.meforms.resources;
 
 import it.appaltiecontratti.meforms.domain.SimpleError;
+import it.appaltiecontratti.meforms.exceptions.NoticeTooLargeException;
 import it.appaltiecontratti.meforms.exceptions.TedFailedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import static it.appaltiecontratti.meforms.common.Constants.MDC_TRACE_ID;
 
 /**
@@ -36,4 +40,22 @@ public class ResponseErrorHandler {
                 .body(new SimpleError(ctx.getOrDefault(MDC_TRACE_ID, null), ex.getError())))
         );
     }
+
+    @ExceptionHandler({ NoticeTooLargeException.class })
+    public final Mono<ResponseEntity<SimpleError>> handleNoticeTooLargeException(final NoticeTooLargeException ex) {
+        log.error("Errore {}", ex.getMessage());
+        return Mono.deferContextual(ctx -> Mono.just(ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new SimpleError(ctx.getOrDefault(MDC_TRACE_ID, null), ex.getMessage())))
+        );
+    }
+
+    @ExceptionHandler({ RejectedExecutionException.class })
+    public final Mono<ResponseEntity<SimpleError>> handleRejectedExecutionException(final RejectedExecutionException ex) {
+        log.error("Errore {}", ex.getMessage());
+        return Mono.deferContextual(ctx -> Mono.just(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new SimpleError(ctx.getOrDefault(MDC_TRACE_ID, null), "Too many notices in progress, retry later")))
+        );
+    }
 }
@@ -1,20 +1,28 @@
 package it.appaltiecontratti.meforms.resources;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import eu.europa.ted.eforms.sdk.SdkConstants;
 import eu.europa.ted.eforms.sdk.SdkVersion;
+import it.appaltiecontratti.meforms.dto.CodelistBatchRequestDTO;
+import it.appaltiecontratti.meforms.dto.CodelistSearchDTO;
+import it.appaltiecontratti.meforms.dto.CodelistTreeDTO;
 import it.appaltiecontratti.meforms.dto.HomePageInfoDTO;
 import it.appaltiecontratti.meforms.dto.NoticeSubtypesDetailDTO;
 import it.appaltiecontratti.meforms.dto.NoticeTypesDTO;
+import it.appaltiecontratti.meforms.helpers.codelist.CodelistIndex;
+import it.appaltiecontratti.meforms.helpers.payload.PreparedPayload;
+import it.appaltiecontratti.meforms.helpers.payload.PreparedPayloadResponses;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.xml.sax.SAXException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Callable;
 
 import static it.appaltiecontratti.meforms.common.Constants.API_V1;
 
@@ -28,6 +36,15 @@ import static it.appaltiecontratti.meforms.common.Constants.API_V1;
 @RequestMapping(value = API_V1 + "sdk")
 public class SdkResource extends BaseResource {
 
+    // Risorse invariabili per versione SDK; la durata limita l'attesa dopo un aggiornamento della patch dell'SDK
+    private static final CacheControl SDK_ASSET_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePublic().immutable();
+
+    // Le risposte servite dalle cache SDK: un valore assente viene caricato dai file SDK (parsing bloccante),
+    // per cui la chiamata al servizio avviene fuori dall'event loop
+    private static <T> Mono<T> fromSdkCache(final Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
     @GetMapping(value = "/info", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<HomePageInfoDTO> selectHomeInfo() {
         log.debug("Execution start {}::selectHomeInfo", getClass().getSimpleName());
@@ -48,30 +65,89 @@ public class SdkResource extends BaseResource {
     }
 
     @GetMapping(value = "/{sdkVersion}/codelists/{codelistId}/lang/{langCode}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseBody
-    private Mono<ObjectNode> serveCodelist(@PathVariable(value = "sdkVersion") final String sdkVersion,
-                                           @PathVariable(value = "codelistId") final String codelistId,
-                                           @PathVariable(value = "langCode") final String langCode)
-            throws IOException {
+    public Mono<ResponseEntity<DataBuffer>> serveCodelist(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                          @PathVariable(value = "codelistId") final String codelistId,
+                                                          @PathVariable(value = "langCode") final String langCode,
+                                                          final ServerWebExchange exchange) {
         log.debug("Execution start {}::serveCodelist with sdk version [ {} ], codelistId [ {} ] and langCode [ {} ]", getClass().getSimpleName(), sdkVersion, codelistId, langCode);
-        return Mono.just(sdkService.serveCodelistAsJson(new SdkVersion(sdkVersion), eformsSdkDir, codelistId, langCode));
+        // Risposta gia' serializzata (con ETag), 304 se il client ha gia' la stessa versione
+        return fromSdkCache(() -> sdkService.serveCodelistPayload(new SdkVersion(sdkVersion), codelistId, langCode))
+                .map(payload -> PreparedPayloadResponses.ok(payload, exchange));
+    }
+
+    @PostMapping(value = "/{sdkVersion}/codelists/lang/{langCode}/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<DataBuffer>> serveCodelistBatch(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                               @PathVariable(value = "langCode") final String langCode,
+                                                               @RequestBody final CodelistBatchRequestDTO request,
+                                                               final ServerWebExchange exchange) {
+        log.debug("Execution start {}::serveCodelistBatch with sdk version [ {} ], langCode [ {} ] and codelistIds [ {} ]", getClass().getSimpleName(), sdkVersion, langCode, request.getCodelistIds());
+        // Risposta serializzata una volta, compressa se accettato dal client
+        return fromSdkCache(() -> sdkService.serveCodelistBatchPayload(new SdkVersion(sdkVersion), langCode, request.getCodelistIds(), request.getEtags()))
+                .map(payload -> PreparedPayloadResponses.ok(payload, exchange));
+    }
+
+    @GetMapping(value = "/{sdkVersion}/codelists/{codelistId}/lang/{langCode}/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CodelistSearchDTO> searchCodelist(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                  @PathVariable(value = "codelistId") final String codelistId,
+                                                  @PathVariable(value = "langCode") final String langCode,
+                                                  @RequestParam(value = "q", defaultValue = "") final String query,
+                                                  @RequestParam(value = "match", defaultValue = "prefix") final String match,
+                                                  @RequestParam(value = "page", defaultValue = "0") final int page,
+                                                  @RequestParam(value = "size", defaultValue = "20") final int size) {
+        log.debug("Execution start {}::searchCodelist with sdk version [ {} ], codelistId [ {} ], langCode [ {} ] and query [ {} ]", getClass().getSimpleName(), sdkVersion, codelistId, langCode, query);
+        return fromSdkCache(() -> sdkService.searchCodelist(new SdkVersion(sdkVersion), codelistId, langCode, query,
+                CodelistIndex.MatchMode.valueOf(match.toUpperCase(Locale.ROOT)), page, size));
+    }
+
+    @GetMapping(value = "/{sdkVersion}/codelists/{codelistId}/lang/{langCode}/tree", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CodelistTreeDTO> serveCodelistTree(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                   @PathVariable(value = "codelistId") final String codelistId,
+                                                   @PathVariable(value = "langCode") final String langCode,
+                                                   @RequestParam(value = "parentCode", required = false) final String parentCode) {
+        log.debug("Execution start {}::serveCodelistTree with sdk version [ {} ], codelistId [ {} ], langCode [ {} ] and parentCode [ {} ]", getClass().getSimpleName(), sdkVersion, codelistId, langCode, parentCode);
+        return fromSdkCache(() -> sdkService.serveCodelistTree(new SdkVersion(sdkVersion), codelistId, langCode, parentCode));
     }
 
     @GetMapping(value = "/{sdkVersion}/basic-meta-data", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ObjectNode> serveFieldsJson(@PathVariable(value = "sdkVersion") final String sdkVersion) {
-        log.debug("Execution start {}::serveFieldsJson with sdk version [ {} ]", getClass().getSimpleName(), sdkVersion);
-        return Mono.just(sdkService.serveSdkBasicMetadata(new SdkVersion(sdkVersion)));
+    public Mono<ResponseEntity<DataBuffer>> serveFieldsJson(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                            @RequestParam(value = "noticeSubType", required = false) final String noticeSubType,
+                                                            final ServerWebExchange exchange) {
+        log.debug("Execution start {}::serveFieldsJson with sdk version [ {} ] and noticeSubType [ {} ]", getClass().getSimpleName(), sdkVersion, noticeSubType);
+        // Risposta precalcolata (con ETag), 304 se il client ha gia' la stessa versione
+        return fromSdkCache(() -> sdkService.serveSdkBasicMetadataPayload(new SdkVersion(sdkVersion), noticeSubType))
+                .map(payload -> PreparedPayloadResponses.ok(payload, exchange));
     }
 
     @GetMapping(value = "/{sdkVersion}/notice-types/{noticeId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<JsonNode> serveNoticeTypeJson(@PathVariable(value = "sdkVersion") final String sdkVersion, @PathVariable(value = "noticeId") final String noticeId) {
+    public Mono<ResponseEntity<DataBuffer>> serveNoticeTypeJson(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                                @PathVariable(value = "noticeId") final String noticeId,
+                                                                final ServerWebExchange exchange) {
         log.debug("Execution start {}::serveNoticeTypeJson with sdk version [ {} ] and noticeId [ {} ]", getClass().getSimpleName(), sdkVersion, noticeId);
-        return Mono.just(sdkService.serveSdkJsonFile(new SdkVersion(sdkVersion), SdkConstants.SdkResource.NOTICE_TYPES, noticeId));
+        // File dell'SDK invariabile per versione: il browser lo riusa senza rivalidarlo
+        return fromSdkCache(() -> sdkService.serveNoticeTypePayload(new SdkVersion(sdkVersion), noticeId))
+                .map(payload -> PreparedPayloadResponses.ok(payload, exchange, MediaType.APPLICATION_JSON, SDK_ASSET_CACHE_CONTROL));
+    }
+
+    @GetMapping(value = "/{sdkVersion}/notice-types/{noticeId}/lang/{langCode}/bootstrap", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<DataBuffer>> serveFormBootstrap(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                               @PathVariable(value = "noticeId") final String noticeId,
+                                                               @PathVariable(value = "langCode") final String langCode,
+                                                               final ServerWebExchange exchange) {
+        log.debug("Execution start {}::serveFormBootstrap with sdk version [ {} ], noticeId [ {} ] and langCode [ {} ]", getClass().getSimpleName(), sdkVersion, noticeId, langCode);
+        // Risposta precalcolata (con ETag), 304 se il client ha gia' la stessa versione
+        return fromSdkCache(() -> sdkService.serveFormBootstrapPayload(new SdkVersion(sdkVersion), noticeId, langCode))
+                .map(payload -> PreparedPayloadResponses.ok(payload, exchange));
     }
 
     @GetMapping(value = "/{sdkVersion}/translations/{langCode}.json", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<JsonNode> serveTranslationsFields(@PathVariable(value = "sdkVersion") final String sdkVersion, @PathVariable(value = "langCode") final String langCode) throws ParserConfigurationException, SAXException, IOException {
-        log.debug("Execution start {}::serveTranslationsFields with sdk version [ {} ] and langCode [ {} ]", getClass().getSimpleName(), sdkVersion, langCode);
-        return Mono.just(sdkService.serveTranslations(new SdkVersion(sdkVersion), langCode));
+    public Mono<ResponseEntity<DataBuffer>> serveTranslationsFields(@PathVariable(value = "sdkVersion") final String sdkVersion,
+                                                                    @PathVariable(value = "langCode") final String langCode,
+                                                                    @RequestParam(value = "prefix", required = false) final String prefix,
+                                                                    @RequestParam(value = "noticeSubType", required = false) final String noticeSubType,
+                                                                    final ServerWebExchange exchange) {
+        log.debug("Execution start {}::serveTranslationsFields with sdk version [ {} ], langCode [ {} ], prefix [ {} ] and noticeSubType [ {} ]", getClass().getSimpleName(), sdkVersion, langCode, prefix, noticeSubType);
+        // Risposta precalcolata (con ETag), 304 se il client ha gia' la stessa versione
+        return fromSdkCache(() -> sdkService.serveTranslationsPayload(new SdkVersion(sdkVersion), langCode, prefix, noticeSubType))
+                .map(payload -> PreparedPayloadResponses.ok(payload, exchange));
     }
 }
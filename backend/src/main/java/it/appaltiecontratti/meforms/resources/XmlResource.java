@@ -3,15 +3,23 @@ package it.appaltiecontratti.meforms.resources;
 import com.fasterxml.jackson.databind.JsonNode;
 import it.appaltiecontratti.meforms.domain.XMLOutput;
 import it.appaltiecontratti.meforms.dto.CvsOutputDTO;
+import it.appaltiecontratti.meforms.helpers.NoticeExecutor;
+import it.appaltiecontratti.meforms.helpers.NoticeJsonBodyReader;
+import it.appaltiecontratti.meforms.helpers.NoticeRequestConfig;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.TimeZone;
+import java.util.function.Function;
 
 import static it.appaltiecontratti.meforms.common.Constants.API_V1;
 
@@ -25,14 +33,44 @@ import static it.appaltiecontratti.meforms.common.Constants.API_V1;
 @RequestMapping(value = API_V1 + "xml")
 public class XmlResource extends BaseResource {
 
+    // Il json del notice viene letto dal body in streaming, senza passare da una String
+    @Autowired
+    private NoticeJsonBodyReader noticeJsonBodyReader;
+
+    @Autowired
+    private NoticeRequestConfig noticeRequestConfig;
+
+    // L'elaborazione del notice viene eseguita fuori dall'event loop
+    @Autowired
+    private NoticeExecutor noticeExecutor;
+
     /**
      * Save: Takes notice as JSON and builds notice XML. The SDK version is in the notice metadata.
      */
     @PostMapping(value = "/notice/save/validation/none", produces = {MediaType.APPLICATION_JSON_VALUE}, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<XMLOutput> saveNotice(final TimeZone timezone, final @RequestBody String noticeJson)
-            throws Exception {
+    public Mono<XMLOutput> saveNotice(final TimeZone timezone, final ServerHttpRequest request) {
         // For the XML generation config booleans, see application.yaml
-        return Mono.just(new XMLOutput(xmlService.saveNoticeAsXml(noticeJson, timezone)));
+        return noticeJsonBodyReader.read(request, noticeRequestConfig.getSaveMaxSize())
+                .flatMap(noticeJson -> noticeExecutor.submit(() ->
+                        new XMLOutput(xmlService.saveNoticeAsXml(noticeJson, timezone))));
+    }
+
+    /**
+     * Save: Takes notice as JSON and builds notice XML. The SDK version is in the notice metadata.
+     * The notice XML is written directly in the response body, without the JSON envelope.
+     */
+    @PostMapping(value = "/notice/save/validation/none/xml", produces = {MediaType.APPLICATION_XML_VALUE}, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeXml(final TimeZone timezone, final ServerHttpRequest request,
+                                                                final ServerHttpResponse response) {
+        return noticeJsonBodyReader.read(request, noticeRequestConfig.getSaveMaxSize())
+                .flatMap(noticeJson -> noticeExecutor.submit(() ->
+                        xmlService.saveNoticeAsXmlBuffer(noticeJson, timezone, response.bufferFactory())))
+                // Il buffer gia' scritto va rilasciato se il client si disconnette prima della risposta
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .map(noticeXml -> ResponseEntity
+                        .ok()
+                        .contentType(MediaType.APPLICATION_XML)
+                        .body(Flux.just(noticeXml)));
     }
 
     /**
@@ -40,8 +78,9 @@ public class XmlResource extends BaseResource {
      * The notice XML is validated against the appropriate SDK XSDs.
      */
     @PostMapping(value = "/notice/save/validation/xsd", produces = {MediaType.APPLICATION_JSON_VALUE}, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<JsonNode> saveNoticeAndXsdValidate(final TimeZone timezone, final @RequestBody String noticeJson) throws Exception {
-        return Mono.just(xmlService.validateUsingXsd(noticeJson, timezone));
+    public Mono<JsonNode> saveNoticeAndXsdValidate(final TimeZone timezone, final ServerHttpRequest request) {
+        return noticeJsonBodyReader.read(request, noticeRequestConfig.getXsdMaxSize())
+                .flatMap(noticeJson -> noticeExecutor.submit(() -> xmlService.validateUsingXsd(noticeJson, timezone)));
     }
 
     /**
@@ -50,9 +89,12 @@ public class XmlResource extends BaseResource {
      * this in the application.yaml file.
      */
     @PostMapping(value = "/notice/save/validation/cvs", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE}, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<CvsOutputDTO> saveNoticeAndCvsValidate(final TimeZone timezone, final @RequestBody String noticeJson,
-                                                       @RequestParam(value = "sdkVersion") final String sdkVersion, @RequestParam(value = "langCode") final String langCode) throws Exception {
-        return xmlService.validateUsingCvs(noticeJson, timezone, sdkVersion, langCode);
+    public Mono<CvsOutputDTO> saveNoticeAndCvsValidate(final TimeZone timezone, final ServerHttpRequest request,
+                                                       @RequestParam(value = "sdkVersion") final String sdkVersion, @RequestParam(value = "langCode") final String langCode) {
+        return noticeJsonBodyReader.read(request, noticeRequestConfig.getCvsMaxSize())
+                .flatMap(noticeJson -> noticeExecutor.submit(() ->
+                        xmlService.validateUsingCvs(noticeJson, timezone, sdkVersion, langCode)))
+                .flatMap(Function.identity());
     }
 
     /**
@@ -61,7 +103,9 @@ public class XmlResource extends BaseResource {
      * this in the application.yaml file.
      */
     @PostMapping(value = "/notice/save/render", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE}, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeAndRender(final TimeZone timezone, final @RequestBody String noticeJson) throws Exception {
-        return xmlService.saveNoticeAndRender(noticeJson, timezone);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeAndRender(final TimeZone timezone, final ServerHttpRequest request) {
+        return noticeJsonBodyReader.read(request, noticeRequestConfig.getRenderMaxSize())
+                .flatMap(noticeJson -> noticeExecutor.submit(() -> xmlService.saveNoticeAndRender(noticeJson, timezone)))
+                .flatMap(Function.identity());
     }
 }
@@ -9,4 +9,6 @@ import java.util.Optional;
 public interface NoticeRenderService {
 
     Flux<DataBuffer> renderNoticeXml(final String noticeXml, final Optional<String> language) throws IOException;
+
+    Flux<DataBuffer> renderNoticeXml(final byte[] noticeXml, final Optional<String> language) throws IOException;
 }
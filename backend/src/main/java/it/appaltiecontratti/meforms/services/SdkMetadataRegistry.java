@@ -0,0 +1,70 @@
+package it.appaltiecontratti.meforms.services;
+
+import eu.europa.ted.eforms.sdk.SdkVersion;
+import it.appaltiecontratti.meforms.helpers.VersionHelper;
+import it.appaltiecontratti.meforms.helpers.notice.SdkMetadata;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Registro in memoria dei metadati SDK ({@link SdkMetadata}) necessari alla generazione dell'XML.
+ * I metadati vengono caricati all'avvio per tutte le versioni configurate in
+ * "application.eforms.sdk.versions" e condivisi in sola lettura tra tutte le richieste, evitando di
+ * rileggere fields.json e notice-types.json ad ogni notice.
+ * </p>
+ */
+@Service
+@Slf4j
+public class SdkMetadataRegistry extends BaseService {
+
+    // Chiave: versione SDK senza patch (es. "1.12"), come per le cartelle dell'SDK
+    private final Map<String, SdkMetadata> sdkMetadataMap = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SdkService sdkService;
+
+    @PostConstruct
+    private void loadResources() {
+        log.info("Starting loading of SDK metadata.");
+        this.supportedSdksObj.forEach(sdkVersion ->
+                sdkMetadataMap.computeIfAbsent(buildKey(sdkVersion), k -> loadSdkMetadata(sdkVersion)));
+        log.info("SDK metadata loaded for versions {}", sdkMetadataMap.keySet());
+    }
+
+    /**
+     * Restituisce i metadati della versione SDK richiesta. Le versioni non precaricate all'avvio
+     * vengono caricate alla prima richiesta e poi mantenute nel registro.
+     *
+     * @param sdkVersion la versione SDK del notice
+     * @return i metadati SDK, condivisi e in sola lettura
+     */
+    public SdkMetadata getSdkMetadata(final SdkVersion sdkVersion) {
+        Validate.notNull(sdkVersion, "Undefined SDK version");
+        return sdkMetadataMap.computeIfAbsent(buildKey(sdkVersion), k -> loadSdkMetadata(sdkVersion));
+    }
+
+    private SdkMetadata loadSdkMetadata(final SdkVersion sdkVersion) {
+        final Instant start = Instant.now();
+        final SdkMetadata sdkMetadata = new SdkMetadata(sdkVersion,
+                sdkService.readSdkFieldsJson(sdkVersion), sdkService.readNoticeTypesJson(sdkVersion));
+        log.info("Loaded SDK metadata for sdk: {} in {} ms", sdkVersion,
+                Duration.between(start, Instant.now()).toMillis());
+        return sdkMetadata;
+    }
+
+    private static String buildKey(final SdkVersion sdkVersion) {
+        return VersionHelper.buildSdkVersionWithoutPatch(sdkVersion);
+    }
+}
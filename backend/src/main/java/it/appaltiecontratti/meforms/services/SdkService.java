@@ -1,16 +1,14 @@
 package it.appaltiecontratti.meforms.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import eu.europa.ted.eforms.sdk.SdkVersion;
-import eu.europa.ted.eforms.sdk.resource.PathResource;
+import it.appaltiecontratti.meforms.dto.CodelistSearchDTO;
+import it.appaltiecontratti.meforms.dto.CodelistTreeDTO;
 import it.appaltiecontratti.meforms.dto.HomePageInfoDTO;
 import it.appaltiecontratti.meforms.dto.NoticeSubtypesDetailDTO;
 import it.appaltiecontratti.meforms.dto.NoticeTypesDTO;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.IOException;
+import it.appaltiecontratti.meforms.helpers.codelist.CodelistIndex;
+import it.appaltiecontratti.meforms.helpers.payload.PreparedPayload;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
@@ -28,13 +26,24 @@ public interface SdkService {
 
     NoticeSubtypesDetailDTO getNoticeSubTypesDetail(final SdkVersion sdkVersion);
 
-    ObjectNode serveCodelistAsJson(final SdkVersion sdkVersion, final Path eformsSdkDir, final String codelistId, final String langCode) throws IOException;
+    PreparedPayload serveCodelistPayload(final SdkVersion sdkVersion, final String codelistId, final String langCode);
+
+    PreparedPayload serveCodelistBatchPayload(final SdkVersion sdkVersion, final String langCode,
+                                              final List<String> codelistIds, final Map<String, String> etags);
+
+    CodelistSearchDTO searchCodelist(final SdkVersion sdkVersion, final String codelistId, final String langCode,
+                                     final String query, final CodelistIndex.MatchMode mode, final int page, final int size);
+
+    CodelistTreeDTO serveCodelistTree(final SdkVersion sdkVersion, final String codelistId, final String langCode, final String parentCode);
+
+    PreparedPayload serveSdkBasicMetadataPayload(final SdkVersion sdkVersion, final String noticeSubType);
 
-    ObjectNode serveSdkBasicMetadata(final SdkVersion sdkVersion);
+    PreparedPayload serveNoticeTypePayload(final SdkVersion sdkVersion, final String noticeId);
 
-    JsonNode serveSdkJsonFile(final SdkVersion sdkVersion, final PathResource resourceType, final String noticeId);
+    PreparedPayload serveFormBootstrapPayload(final SdkVersion sdkVersion, final String noticeId, final String langCode);
 
-    JsonNode serveTranslations(final SdkVersion sdkVersion, final String langCode) throws ParserConfigurationException, SAXException, IOException;
+    PreparedPayload serveTranslationsPayload(final SdkVersion sdkVersion, final String langCode,
+                                             final String prefix, final String noticeSubType);
 
     JsonNode readSdkCodelistsJson(final SdkVersion sdkVersion);
 
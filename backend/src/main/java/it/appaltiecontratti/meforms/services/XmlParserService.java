@@ -1,21 +1,22 @@
 package it.appaltiecontratti.meforms.services;
 
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import it.appaltiecontratti.meforms.dto.CvsItemDTO;
 import it.appaltiecontratti.meforms.dto.CvsOutputDTO;
+import it.appaltiecontratti.meforms.dto.FieldLabelsDTO;
 import it.appaltiecontratti.meforms.dto.validationCvs.FailedAssert;
 import it.appaltiecontratti.meforms.dto.validationCvs.FiredRule;
-import it.appaltiecontratti.meforms.dto.validationCvs.XmlRoot;
+import it.appaltiecontratti.meforms.helpers.validation.SvrlStreamReader;
 import it.appaltiecontratti.meforms.services.impl.SdkServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.xml.stream.XMLStreamException;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import static it.appaltiecontratti.meforms.common.Constants.MDC_TRACE_ID;
 
@@ -24,6 +25,14 @@ import static it.appaltiecontratti.meforms.common.Constants.MDC_TRACE_ID;
 @RequiredArgsConstructor
 public class XmlParserService {
 
+    private static final String KO_PREFIX = "KO-";
+    private static final String OK_PREFIX = "OK-";
+
+    // RegEx per estrarre tutti i numeri nella forma "[X]", dove X è un numero
+    private static final Pattern SECTION_INDEX_PATTERN = Pattern.compile("\\[(\\d+)]");
+    // RegEx per estrarre tutti i campi/gruppi presenti nella descrizione (campo <svrl:text>)
+    private static final Pattern FIELD_OR_GROUP_PATTERN = Pattern.compile("(BT-|OPT-|OPP-|OPA-|GR-|ND-)[^\\s'\"]+");
+
     private final SdkServiceImpl sdkService;
 
     /**
@@ -32,75 +41,98 @@ public class XmlParserService {
      * @return l'oggetto di response
      */
     public Mono<CvsOutputDTO> parseXmlCvsValidation(final String xmlString, final String sdkVersion, final String langCode) {
+        return this.streamCvsItems(xmlString, sdkVersion, langCode)
+                .collect(CvsItemsCollector::new, CvsItemsCollector::add)
+                .flatMap(collector -> Mono.deferContextual(ctx -> {
+                    // Crea l'oggetto di response
+                    CvsOutputDTO cvsOutputDTO = new CvsOutputDTO();
+                    cvsOutputDTO.setIdTracciatura(ctx.getOrDefault(MDC_TRACE_ID, null));
+                    cvsOutputDTO.setItems(collector.getItems());
+                    cvsOutputDTO.setTotalFiredRules(collector.firedRules.size());
+                    cvsOutputDTO.setTotalFailedAsserts(collector.failedAsserts.size());
+
+                    return Mono.just(cvsOutputDTO);
+                }));
+    }
 
-        final String KO_PREFIX = "KO-";
-        final String OK_PREFIX = "OK-";
-
-        try {
-            // Crea un XmlMapper
-            XmlMapper xmlMapper = new XmlMapper();
-
-            // Converte l'XML in un oggetto Java
-            XmlRoot xmlRoot = xmlMapper.readValue(xmlString, XmlRoot.class);
-            List<CvsItemDTO> cvsItemDTOList = new ArrayList<>();
-
-            // Recupera tutte le failed-assert
-            int index = 1;
-            if (xmlRoot.getFailedAsserts() != null) {
-                for (FailedAssert failedAssert : xmlRoot.getFailedAsserts()) {
-                    cvsItemDTOList.add(CvsItemDTO.builder()
-                            .index(KO_PREFIX + index)
-                            .id(failedAssert.id)
-                            .location(failedAssert.location)
-                            .numeroLotto(this.createNumeroLotto(failedAssert))
-                            .test(failedAssert.test)
-                            .role(failedAssert.role)
-                            .text(failedAssert.text)
-                            .legenda(this.createLegenda(failedAssert, sdkVersion, langCode))
-                            // campi per evidenziare errori CVS nella form
-                            .see(this.parseSeeAttribute(failedAssert))
-                            .indiciSezioni(this.retrieveSectionIndexes(failedAssert))
-                            .build()
-                    );
-                    ++index;
-                }
-            }
-
-            // Recupera tutte le fired-rule
-            index = 1;
-            if (xmlRoot.getFiredRules() != null) {
-                for (FiredRule firedRule : xmlRoot.getFiredRules()) {
-                    cvsItemDTOList.add(CvsItemDTO.builder()
-                            .index(OK_PREFIX + index)
-                            .location(firedRule.context)
-                            .build()
-                    );
-                    ++index;
-                }
-            }
+    /**
+     * Legge in streaming il report SVRL della validazione CVS ed emette un item per ogni failed-assert
+     * (KO-n) e per ogni fired-rule (OK-n), nell'ordine in cui compaiono nel documento
+     * @param xmlString l'XML sotto forma di stringa
+     * @return gli item della validazione CVS
+     */
+    public Flux<CvsItemDTO> streamCvsItems(final String xmlString, final String sdkVersion, final String langCode) {
+        return Flux.generate(
+                () -> new SvrlStreamReader(xmlString),
+                (reader, sink) -> {
+                    try {
+                        final Object item = reader.nextItem();
+                        if (item instanceof FailedAssert failedAssert) {
+                            sink.next(this.buildFailedAssertItem(KO_PREFIX + reader.getFailedAssertCount(),
+                                    failedAssert, sdkVersion, langCode));
+                        } else if (item instanceof FiredRule firedRule) {
+                            sink.next(CvsItemDTO.builder()
+                                    .index(OK_PREFIX + reader.getFiredRuleCount())
+                                    .location(firedRule.context)
+                                    .build());
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (Exception e) {
+                        sink.error(new RuntimeException("Errore durante il parsing dell'XML della validazione CVS", e));
+                    }
+                    return reader;
+                },
+                reader -> {
+                    try {
+                        reader.close();
+                    } catch (XMLStreamException e) {
+                        log.warn("Errore durante la chiusura del lettore SVRL", e);
+                    }
+                });
+    }
 
-            return Mono.deferContextual(ctx -> {
-                // Crea l'oggetto di response
-                CvsOutputDTO cvsOutputDTO = new CvsOutputDTO();
-                cvsOutputDTO.setIdTracciatura(ctx.getOrDefault(MDC_TRACE_ID, null));
-                cvsOutputDTO.setItems(cvsItemDTOList);
-                cvsOutputDTO.setTotalFiredRules(xmlRoot.getFiredRules().size());
-                cvsOutputDTO.setTotalFailedAsserts(xmlRoot.getFailedAsserts() != null? xmlRoot.getFailedAsserts().size() : 0);
+    private CvsItemDTO buildFailedAssertItem(final String index, final FailedAssert failedAssert,
+                                             final String sdkVersion, final String langCode) {
+        return CvsItemDTO.builder()
+                .index(index)
+                .id(failedAssert.id)
+                .location(failedAssert.location)
+                .numeroLotto(this.createNumeroLotto(failedAssert))
+                .test(failedAssert.test)
+                .role(failedAssert.role)
+                .text(failedAssert.text)
+                .legenda(this.createLegenda(failedAssert, sdkVersion, langCode))
+                // campi per evidenziare errori CVS nella form
+                .see(this.parseSeeAttribute(failedAssert))
+                .indiciSezioni(this.retrieveSectionIndexes(failedAssert))
+                .build();
+    }
 
-                return Mono.just(cvsOutputDTO);
-            });
+    // Raccoglie gli item mantenendo nella response prima i failed-assert e poi le fired-rule
+    private static class CvsItemsCollector {
+        private final List<CvsItemDTO> failedAsserts = new ArrayList<>();
+        private final List<CvsItemDTO> firedRules = new ArrayList<>();
 
+        private void add(final CvsItemDTO item) {
+            if (item.getIndex().startsWith(KO_PREFIX)) {
+                failedAsserts.add(item);
+            } else {
+                firedRules.add(item);
+            }
         }
-        catch (Exception e){
-            throw new RuntimeException("Errore durante il parsing dell'XML della validazione CVS");
+
+        private List<CvsItemDTO> getItems() {
+            final List<CvsItemDTO> items = new ArrayList<>(failedAsserts.size() + firedRules.size());
+            items.addAll(failedAsserts);
+            items.addAll(firedRules);
+            return items;
         }
     }
 
     // Metodo per recupera tutti gli indici della sezione ripetibile (lotto compreso) di un errore CVS
     private List<Integer> retrieveSectionIndexes(final FailedAssert failedAssert) {
-        // RegEx per estrarre tutti i numeri nella forma "[X]", dove X è un numero
-        Pattern pattern = Pattern.compile("\\[(\\d+)]");
-        Matcher matcher = pattern.matcher(failedAssert.getLocation());
+        Matcher matcher = SECTION_INDEX_PATTERN.matcher(failedAssert.getLocation());
 
         List<Integer> indiciSezioni  = new ArrayList<>();
 
@@ -126,9 +158,8 @@ public class XmlParserService {
 
     // Metodo per popolare la colonna del numero lotto per un dato errore CVS
     private Integer createNumeroLotto(final FailedAssert failedAssert) {
-        // RegEx per estrarre tutti i numeri di lotto nella forma "[X]", dove X è un numero
-        Pattern pattern = Pattern.compile("\\[(\\d+)]");
-        Matcher matcher = pattern.matcher(failedAssert.getLocation());
+        // Estrae tutti i numeri di lotto nella forma "[X]", dove X è un numero
+        Matcher matcher = SECTION_INDEX_PATTERN.matcher(failedAssert.getLocation());
 
         List<Integer> lotNumbers  = new ArrayList<>();
 
@@ -147,9 +178,8 @@ public class XmlParserService {
 
         Set<String> legendaAddedFields = new HashSet<>();
 
-        // 1 - RegEx per estrarre tutti i campi/gruppi presenti nella descrizione (campo <svrl:text>)
-        Pattern pattern = Pattern.compile("(BT-|OPT-|OPP-|OPA-|GR-|ND-)[^\\s'\"]+");
-        Matcher matcher = pattern.matcher(failedAssert.getText());
+        // 1 - Estrae tutti i campi/gruppi presenti nella descrizione (campo <svrl:text>)
+        Matcher matcher = FIELD_OR_GROUP_PATTERN.matcher(failedAssert.getText());
 
         while (matcher.find()) {
             String key = matcher.group();
@@ -178,45 +208,37 @@ public class XmlParserService {
 
     // Aggiunge un campo alla legenda con la relativa descrizione
     private void addFieldToLegenda(String key, StringBuilder legenda, String sdkVersion, String langCode){
-        String descriptionKey = "description|" + key;
-        String hintKey = "hint|" + key;
-        String nameKey = "name|" + key;
-
-        // Recupera la mappa eliminando l'informazione su "field" o "group" per ogni entry
-        Map<String, String> seeInfoMap = sdkService.getFieldsAndGroupsMap().get(sdkVersion + "|" + langCode)
-                .entrySet().stream().collect(Collectors.toMap(
-                        e -> {
-                            String[] parts = e.getKey().split("\\|");
-                            return (parts.length > 2) ? parts[1] + "|" + parts[2] : e.getKey();
-                        },
-                        Map.Entry::getValue
-                ));
+        // Etichette del campo/gruppo dall'indice precalcolato per sdk e lingua
+        FieldLabelsDTO fieldLabels = sdkService.getFieldLabels(sdkVersion, langCode, key);
+        if (fieldLabels == null) {
+            return;
+        }
 
         StringBuilder legendaSingola = new StringBuilder();
 
         // check name key
-        if (seeInfoMap.containsKey(nameKey)) {
-            legendaSingola.append(key).append(" - ").append(seeInfoMap.get(nameKey)).append(".");
+        if (fieldLabels.getName() != null) {
+            legendaSingola.append(key).append(" - ").append(fieldLabels.getName()).append(".");
         }
 
         // check description key
-        if (seeInfoMap.containsKey(descriptionKey)) {
+        if (fieldLabels.getDescription() != null) {
             if (!legendaSingola.isEmpty()) {
                 legendaSingola.append(" - ");
             } else {
                 legendaSingola.append(key).append(" - ");
             }
-            legendaSingola.append(seeInfoMap.get(descriptionKey)).append(".");
+            legendaSingola.append(fieldLabels.getDescription()).append(".");
         }
 
         // check hint key
-        if (seeInfoMap.containsKey(hintKey)) {
+        if (fieldLabels.getHint() != null) {
             if (!legendaSingola.isEmpty()) {
                 legendaSingola.append(" - ");
             } else {
                 legendaSingola.append(key).append(" - ");
             }
-            legendaSingola.append(seeInfoMap.get(hintKey)).append(".");
+            legendaSingola.append(fieldLabels.getHint()).append(".");
         }
 
         if (!legendaSingola.isEmpty()) {
@@ -1,9 +1,11 @@
 package it.appaltiecontratti.meforms.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import it.appaltiecontratti.meforms.dto.CvsOutputDTO;
 import it.appaltiecontratti.meforms.helpers.notice.PhysicalModel;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.ResponseEntity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -17,13 +19,15 @@ import java.util.TimeZone;
  */
 public interface XmlWriteService {
 
-    String saveNoticeAsXml(final String noticeJson, final TimeZone timezone) throws Exception;
+    String saveNoticeAsXml(final ObjectNode noticeJson, final TimeZone timezone) throws Exception;
 
-    JsonNode validateUsingXsd(final String noticeJson, final TimeZone timezone) throws Exception;
+    DataBuffer saveNoticeAsXmlBuffer(final ObjectNode noticeJson, final TimeZone timezone, final DataBufferFactory bufferFactory) throws Exception;
 
-    PhysicalModel buildPhysicalModel(final String noticeJson, final boolean debug, final boolean skipIfNoValue, final boolean sortXml, final TimeZone timezone) throws Exception;
+    JsonNode validateUsingXsd(final ObjectNode noticeJson, final TimeZone timezone) throws Exception;
 
-    Mono<CvsOutputDTO> validateUsingCvs(final String noticeJson, final TimeZone timezone, String sdkVersion, String langCode) throws Exception;
+    PhysicalModel buildPhysicalModel(final ObjectNode noticeJson, final boolean debug, final boolean skipIfNoValue, final boolean sortXml, final TimeZone timezone) throws Exception;
 
-    Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeAndRender(final String noticeJson, final TimeZone timezone) throws Exception;
+    Mono<CvsOutputDTO> validateUsingCvs(final ObjectNode noticeJson, final TimeZone timezone, String sdkVersion, String langCode) throws Exception;
+
+    Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeAndRender(final ObjectNode noticeJson, final TimeZone timezone) throws Exception;
 }
@@ -26,6 +26,25 @@ public class NoticeRenderServiceImpl extends BaseService implements NoticeRender
 
     @Override
     public Flux<DataBuffer> renderNoticeXml(String noticeXml, Optional<String> language) throws IOException {
+        checkRenderConfiguration();
+
+        //
+        // Call the RENDER API.
+        //
+        return tedApiClient.renderNoticeXml(noticeXml, language);
+    }
+
+    @Override
+    public Flux<DataBuffer> renderNoticeXml(byte[] noticeXml, Optional<String> language) throws IOException {
+        checkRenderConfiguration();
+
+        //
+        // Call the RENDER API.
+        //
+        return tedApiClient.renderNoticeXml(noticeXml, language);
+    }
+
+    private void checkRenderConfiguration() {
         log.info("Attempting to render notice");
 
         // https://docs.ted.europa.eu/api/index.html
@@ -35,11 +54,6 @@ public class NoticeRenderServiceImpl extends BaseService implements NoticeRender
 
         final String renderApiRootUrl = tedConfig.getRender().getUrl();
         Validate.notBlank(renderApiRootUrl, "The RENDER URL is not configured, see application.yaml");
-
-        //
-        // Call the RENDER API.
-        //
-        return tedApiClient.renderNoticeXml(noticeXml, language);
     }
 
 }
@@ -5,11 +5,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import eu.europa.ted.eforms.sdk.SdkVersion;
 import it.appaltiecontratti.meforms.helpers.TedApiClient;
 import it.appaltiecontratti.meforms.helpers.TedConfig;
+import it.appaltiecontratti.meforms.helpers.notice.DocumentTypeInfo;
 import it.appaltiecontratti.meforms.helpers.validation.CsvValidationMode;
+import it.appaltiecontratti.meforms.helpers.validation.XsdSchemaCache;
 import it.appaltiecontratti.meforms.helpers.validation.XsdValidator;
 import it.appaltiecontratti.meforms.services.BaseService;
 import it.appaltiecontratti.meforms.services.NoticeValidationService;
+import it.appaltiecontratti.meforms.services.SdkMetadataRegistry;
 import it.appaltiecontratti.meforms.util.JsonUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,9 +25,7 @@ import reactor.core.publisher.Mono;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * @author Cristiano Perin <cristiano.perin@akera.it>
@@ -40,6 +42,27 @@ public class NoticeValidationServiceImpl extends BaseService implements NoticeVa
     @Autowired
     private TedApiClient tedApiClient;
 
+    @Autowired
+    private XsdSchemaCache xsdSchemaCache;
+
+    @Autowired
+    private SdkMetadataRegistry sdkMetadataRegistry;
+
+    @PostConstruct
+    private void loadResources() {
+        // Precompila gli schema XSD di tutti i document type delle versioni SDK configurate
+        final Set<Path> mainXsdPaths = new LinkedHashSet<>();
+        this.supportedSdksObj.forEach(sdkVersion -> {
+            final Path pathToSpecificSdk = eformsSdkDir.resolve(sdkVersion.toStringWithoutPatch());
+            sdkMetadataRegistry.getSdkMetadata(sdkVersion).getDocumentInfoByType().values().stream()
+                    .map(documentType -> new DocumentTypeInfo(documentType, sdkVersion).getSdkXsdPathOpt())
+                    .flatMap(Optional::stream)
+                    .map(pathToSpecificSdk::resolve)
+                    .forEach(mainXsdPaths::add);
+        });
+        xsdSchemaCache.warmUp(mainXsdPaths);
+    }
+
     @Override
     public ObjectNode validateNoticeUsingXsd(final UUID noticeUuid, final SdkVersion sdkVersion,
                                              final String noticeXmlText, final Optional<Path> mainXsdPathOpt)
@@ -47,7 +70,7 @@ public class NoticeValidationServiceImpl extends BaseService implements NoticeVa
 
         // Create a JSON report about the errors.
         log.info("Attempting to validate notice using XSD.");
-        final ObjectNode xsdReport = JsonUtils.getStandardJacksonObjectMapper().createObjectNode();
+        final ObjectNode xsdReport = JsonUtils.createObjectNode();
         xsdReport.put("noticeUuid", noticeUuid.toString());
         xsdReport.put("sdkVersion", sdkVersion.toString());
         xsdReport.put("timestamp", Instant.now().toString());
@@ -55,18 +78,17 @@ public class NoticeValidationServiceImpl extends BaseService implements NoticeVa
         if (mainXsdPathOpt.isPresent()) {
             final Path mainXsdPath = mainXsdPathOpt.get();
             final List<SAXParseException> validationExceptions =
-                    XsdValidator.validateXml(noticeXmlText, mainXsdPath);
+                    XsdValidator.validateXml(noticeXmlText, mainXsdPath, xsdSchemaCache);
             xsdReport.put("errorCount", validationExceptions.size());
 
             if (!validationExceptions.isEmpty()) {
                 final ArrayNode xsdErrors = xsdReport.putArray("xsdErrors");
                 for (SAXParseException ex : validationExceptions) {
                     log.error(ex.toString(), ex);
-                    final ObjectNode xsdError = JsonUtils.getStandardJacksonObjectMapper().createObjectNode();
+                    final ObjectNode xsdError = xsdErrors.addObject();
                     xsdError.put("lineNumber", ex.getLineNumber());
                     xsdError.put("columnNumber", ex.getColumnNumber());
                     xsdError.put("message", ex.getMessage());
-                    xsdErrors.add(xsdError);
                 }
             }
         } else {
@@ -2,10 +2,9 @@ package it.appaltiecontratti.meforms.services.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.helger.genericode.v10.CodeListDocument;
 import com.helger.genericode.v10.Column;
 import com.helger.genericode.v10.Row;
@@ -14,25 +13,48 @@ import eu.europa.ted.eforms.sdk.SdkConstants;
 import eu.europa.ted.eforms.sdk.SdkVersion;
 import eu.europa.ted.eforms.sdk.resource.PathResource;
 import eu.europa.ted.eforms.sdk.resource.SdkResourceLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
 import it.appaltiecontratti.meforms.domain.Language;
+import it.appaltiecontratti.meforms.dto.CodelistBatchDTO;
+import it.appaltiecontratti.meforms.dto.CodelistBatchItemDTO;
+import it.appaltiecontratti.meforms.dto.CodelistReferenceDTO;
+import it.appaltiecontratti.meforms.dto.CodelistSearchDTO;
+import it.appaltiecontratti.meforms.dto.CodelistTreeDTO;
+import it.appaltiecontratti.meforms.dto.CodelistTreeNodeDTO;
+import it.appaltiecontratti.meforms.dto.FieldLabelsDTO;
+import it.appaltiecontratti.meforms.dto.FormBootstrapDTO;
 import it.appaltiecontratti.meforms.dto.HomePageInfoDTO;
 import it.appaltiecontratti.meforms.dto.NoticeSubtypesDetailDTO;
 import it.appaltiecontratti.meforms.dto.NoticeTypesDTO;
 import it.appaltiecontratti.meforms.genericode.CustomGenericodeMarshaller;
 import it.appaltiecontratti.meforms.genericode.GenericodeTools;
+import it.appaltiecontratti.meforms.helpers.BasicMetadataConfig;
 import it.appaltiecontratti.meforms.helpers.SafeDocumentBuilder;
+import it.appaltiecontratti.meforms.helpers.SdkCacheConfig;
 import it.appaltiecontratti.meforms.helpers.VersionHelper;
+import it.appaltiecontratti.meforms.helpers.cache.MemoryBudgetCache;
+import it.appaltiecontratti.meforms.helpers.codelist.CachedCodelist;
+import it.appaltiecontratti.meforms.helpers.codelist.CodelistIndex;
+import it.appaltiecontratti.meforms.helpers.codelist.CodelistTree;
+import it.appaltiecontratti.meforms.helpers.notice.BasicMetadataProjection;
+import it.appaltiecontratti.meforms.helpers.payload.PreparedPayload;
+import it.appaltiecontratti.meforms.helpers.payload.PreparedPayloadFactory;
+import it.appaltiecontratti.meforms.helpers.snapshot.SdkSnapshot;
+import it.appaltiecontratti.meforms.helpers.snapshot.SdkSnapshotStore;
+import it.appaltiecontratti.meforms.helpers.snapshot.SdkSnapshotWriter;
 import it.appaltiecontratti.meforms.services.BaseService;
 import it.appaltiecontratti.meforms.services.SdkService;
 import it.appaltiecontratti.meforms.util.IntuitiveStringComparator;
 import it.appaltiecontratti.meforms.util.JavaTools;
 import it.appaltiecontratti.meforms.util.JsonUtils;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
@@ -45,10 +67,18 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static it.appaltiecontratti.meforms.common.Constants.*;
@@ -62,33 +92,99 @@ import static it.appaltiecontratti.meforms.common.Constants.*;
 @Slf4j
 public class SdkServiceImpl extends BaseService implements SdkService {
 
+    // Numero massimo di righe per pagina nella ricerca nelle code lists
+    private static final int CODELIST_SEARCH_MAX_SIZE = 100;
+
+    // Numero massimo di code lists per richiesta batch
+    private static final int CODELIST_BATCH_MAX_SIZE = 500;
+
+    // Colonne dei file ".gc" e loro posizione tra i valori di una riga; le etichette per lingua seguono
+    private static final String GC_COLUMN_CODE = "code";
+    private static final String GC_COLUMN_PARENT_CODE = "parentCode";
+    private static final String GC_COLUMN_ENG_LABEL = "eng_label";
+    private static final String GC_COLUMN_NAME = "Name";
+    private static final int GC_SLOT_CODE = 0;
+    private static final int GC_SLOT_PARENT_CODE = 1;
+    private static final int GC_SLOT_ENG_LABEL = 2;
+    private static final int GC_SLOT_NAME = 3;
+
+    // Chiavi dei valori nello snapshot SDK, code lists e traduzioni sono per lingua
+    private static final String SNAPSHOT_KEY_FIELDS = "fields";
+    private static final String SNAPSHOT_KEY_NOTICE_TYPES = "notice-types";
+    private static final String SNAPSHOT_KEY_CODELIST = "codelist|";
+    private static final String SNAPSHOT_KEY_TRANSLATIONS = "translations|";
+
+    // Stima in byte della memoria occupata da ogni etichetta tradotta, oltre ai caratteri di chiave e testo
+    private static final int TRANSLATION_ENTRY_OVERHEAD = 160;
+
+    // Lunghezza massima del prefisso di chiave accettato dal filtro delle traduzioni
+    private static final int TRANSLATION_PREFIX_MAX_LENGTH = 256;
+
+    // Risultato del caricamento di un file ".gc" nelle lingue richieste
+    private record LoadedCodeList(SdkVersion sdkVersion, String codeListId,
+                                  Map<String, CachedCodelist> codeListByLangCode) {
+    }
+
+    // Traduzioni di fields e groups in una lingua: testi ordinati per chiave, etichette per id field/group
+    // e risposta completa gia' serializzata
+    private record CachedTranslations(NavigableMap<String, String> fieldsAndGroups, Map<String, FieldLabelsDTO> labelsById,
+                                      PreparedPayload payload) {
+    }
+
+    // Id delle code lists disponibili e relativo file ".gc", per versione SDK (letti da codelists.json all'avvio)
     @SuppressWarnings("java:S3749")
-    private final Map<String, List<String>> availableCodeListsId = new HashMap<>();
+    private final Map<String, Map<String, Path>> codeListPathsBySdk = new HashMap<>();
+
+    // Snapshot precompilati, per versione SDK senza patch (es. "1.12")
     @SuppressWarnings("java:S3749")
-    private final Map<String, ObjectNode> codeListsMap = new HashMap<>();
-    @Getter
+    private final Map<String, SdkSnapshot> snapshotBySdk = new HashMap<>();
+
+    // Code lists con chiave "sdk|lingua|codice", caricate su richiesta entro il limite di memoria
+    private MemoryBudgetCache<String, CachedCodelist> codeListCache;
+
+    // ETag delle code lists con chiave "sdk|lingua|codice", mantenuti anche se la code list esce dalla cache
+    private final Map<String, String> codeListEtags = new ConcurrentHashMap<>();
+
+    // Definizioni dei notice types servibili, per versione SDK: noticeId -> file "notice-types/{noticeId}.json"
     @SuppressWarnings("java:S3749")
-    private final Map<String, Map<String, String>> fieldsAndGroupsMap = new HashMap<>();
+    private final Map<String, Map<String, Path>> noticeTypePathsBySdk = new HashMap<>();
 
-    private static Optional<Value> gcFindFirstColumnRef(final Collection<Value> gcRowValues,
-                                                        final String columnRefText) {
-        return gcRowValues.stream()
-                .filter(v -> ((Column) v.getColumnRef()).getId().equals(columnRefText))
-                .findFirst();
-    }
+    // Definizioni dei notice types gia' serializzate nella risposta, con chiave "sdk|noticeId"
+    private MemoryBudgetCache<String, PreparedPayload> noticeTypeCache;
 
-    private static void putCodeValueAndLangCode(final String codelistId, final String langCode, final ObjectMapper jsonMapper,
-                                                final ArrayNode jsonRows, final String technicalCode, final Optional<Value> englishLabelOpt) {
-        putCodeValueAndLangCode(codelistId, langCode, jsonMapper, jsonRows, technicalCode, englishLabelOpt, Optional.empty());
-    }
+    // Risposte "basic-meta-data" gia' serializzate, con chiave "sdk|noticeSubType" ("sdk|" per tutti i fields)
+    private MemoryBudgetCache<String, PreparedPayload> basicMetadataCache;
+
+    // Dati di apertura dei form gia' serializzati, con chiave "sdk|noticeSubType|lingua"
+    private MemoryBudgetCache<String, PreparedPayload> bootstrapCache;
+
+    // Traduzioni di fields e groups (cartella "translations") con chiave "sdk|lingua", caricate su richiesta
+    private MemoryBudgetCache<String, CachedTranslations> translationCache;
+
+    // Sottoinsiemi delle traduzioni gia' serializzati, con chiave "sdk|lingua|noticeSubType|prefisso"
+    private MemoryBudgetCache<String, PreparedPayload> translationSubsetCache;
 
-    private static void putCodeValueAndLangCode(final String codelistId, final String langCode, final ObjectMapper jsonMapper,
+    @Autowired
+    private PreparedPayloadFactory preparedPayloadFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SdkCacheConfig sdkCacheConfig;
+
+    @Autowired
+    private SdkSnapshotStore sdkSnapshotStore;
+
+    @Autowired
+    private BasicMetadataConfig basicMetadataConfig;
+
+    private static void putCodeValueAndLangCode(final String codelistId, final String langCode,
                                                 final ArrayNode jsonRows, final String technicalCode, final Optional<Value> englishLabelOpt, final Optional<Value> parentCodeValOpt) {
 
 
         String englishText = englishLabelOpt.get().getSimpleValueValue();
-        final ObjectNode jsonRow = jsonMapper.createObjectNode();
-        jsonRows.add(jsonRow);
+        final ObjectNode jsonRow = jsonRows.addObject();
         jsonRow.put("codeValue", technicalCode.strip());
 
         // EFORMS-81
@@ -193,11 +289,46 @@ public class SdkServiceImpl extends BaseService implements SdkService {
 
     @PostConstruct
     private void loadResources() {
-        // Carica una cache contenente tutti i code lists con chiave "sdk|lingua|codice"
-        this.loadAllAvailableCodeLists();
-
-        // Carica una cache contenente tutti i fields e i groups presi dalla cartella "translations" con chiave "sdk|lingua"
-        this.loadAllAvailableFieldsAndGroups();
+        final List<String> prewarmLanguages = sdkCacheConfig.getPrewarmLanguages() != null
+                ? sdkCacheConfig.getPrewarmLanguages() : List.of();
+        Validate.isTrue(supportedLanguages.containsAll(prewarmLanguages),
+                "prewarmLanguages=%s must be supported languages=%s", prewarmLanguages, supportedLanguages);
+
+        this.codeListCache = new MemoryBudgetCache<>("codelists", sdkCacheConfig.getCodelistsMaxSize().toBytes(),
+                CachedCodelist::estimateSizeInBytes, meterRegistry);
+        Gauge.builder("meforms.codelists.loaded", codeListCache, MemoryBudgetCache::size)
+                .description("Number of code lists in cache, by sdk and language")
+                .register(meterRegistry);
+        this.translationCache = new MemoryBudgetCache<>("translations", sdkCacheConfig.getTranslationsMaxSize().toBytes(),
+                SdkServiceImpl::estimateSizeInBytes, meterRegistry);
+        this.translationSubsetCache = new MemoryBudgetCache<>("translation-subsets",
+                sdkCacheConfig.getTranslationSubsetsMaxSize().toBytes(), PreparedPayload::sizeInBytes, meterRegistry);
+        this.noticeTypeCache = new MemoryBudgetCache<>("notice-types", sdkCacheConfig.getNoticeTypesMaxSize().toBytes(),
+                PreparedPayload::sizeInBytes, meterRegistry);
+        this.basicMetadataCache = new MemoryBudgetCache<>("basic-metadata", sdkCacheConfig.getBasicMetadataMaxSize().toBytes(),
+                PreparedPayload::sizeInBytes, meterRegistry);
+        this.bootstrapCache = new MemoryBudgetCache<>("bootstrap", sdkCacheConfig.getBootstrapMaxSize().toBytes(),
+                PreparedPayload::sizeInBytes, meterRegistry);
+
+        // Elenco dei notice types servibili per ogni SDK
+        this.loadAvailableNoticeTypes();
+
+        // Legge gli id e i file ".gc" dei code lists di ogni SDK
+        this.loadAvailableCodeListsId();
+
+        // Apre lo snapshot precompilato di ogni SDK, creandolo se assente o se i file SDK sono cambiati
+        this.supportedSdksObj.forEach(sdkVersion -> sdkSnapshotStore
+                .load(sdkVersion, eformsSdkDir, supportedLanguages, writer -> buildSnapshot(sdkVersion, writer))
+                .ifPresent(snapshot -> snapshotBySdk.put(snapshotKey(sdkVersion), snapshot)));
+
+        // Precarica la cache dei code lists con chiave "sdk|lingua|codice" per le lingue configurate
+        this.loadAllAvailableCodeLists(prewarmLanguages);
+
+        // Precarica la cache dei fields e dei groups presi dalla cartella "translations" con chiave "sdk|lingua"
+        this.loadAllAvailableFieldsAndGroups(prewarmLanguages);
+
+        // Precalcola la risposta "basic-meta-data" completa di ogni SDK
+        this.supportedSdksObj.forEach(sdkVersion -> serveSdkBasicMetadataPayload(sdkVersion, null));
     }
 
     @Override
@@ -266,27 +397,119 @@ public class SdkServiceImpl extends BaseService implements SdkService {
     }
 
     /**
-     * Serve an SDK codelist information as JSON. This is called when a field allows to select codes.
+     * Serve an SDK codelist already serialized in the response envelope, plain and gzip compressed.
+     * The payload is built when the codelist is loaded in cache and then reused.
+     */
+    @Override
+    public PreparedPayload serveCodelistPayload(final SdkVersion sdkVersion, final String codelistId, final String langCode) {
+        return getCachedCodeListStrict(sdkVersion, codelistId, langCode).getPayload();
+    }
+
+    /**
+     * Searches an SDK codelist by code or label, ignoring case and accents. This is used by the form
+     * for the typeahead of large codelists (CPV, NUTS, ...) instead of downloading the whole list.
+     */
+    @Override
+    public CodelistSearchDTO searchCodelist(final SdkVersion sdkVersion, final String codelistId, final String langCode,
+                                            final String query, final CodelistIndex.MatchMode mode,
+                                            final int page, final int size) {
+        Validate.inclusiveBetween(1, CODELIST_SEARCH_MAX_SIZE, size, "size must be between 1 and " + CODELIST_SEARCH_MAX_SIZE);
+        final CodelistIndex index = getCachedCodeListStrict(sdkVersion, codelistId, langCode).getIndex();
+        final CodelistIndex.Page result = index.search(query, mode, page, size);
+        return new CodelistSearchDTO(codelistId, query, page, size, result.total(), result.rows());
+    }
+
+    /**
+     * Serve several SDK codelists in the same language, skipping those whose ETag sent by the client is
+     * still current. The codelists are copied in the response already serialized, and the response is
+     * prepared plain and gzip compressed like the single codelist.
      */
     @Override
-    public ObjectNode serveCodelistAsJson(final SdkVersion sdkVersion, final Path eformsSdkDir, final String codelistId, final String langCode) {
+    public PreparedPayload serveCodelistBatchPayload(final SdkVersion sdkVersion, final String langCode,
+                                                     final List<String> codelistIds, final Map<String, String> etags) {
+        Validate.isTrue(codelistIds != null && !codelistIds.isEmpty() && codelistIds.size() <= CODELIST_BATCH_MAX_SIZE,
+                "codelistIds must be between 1 and %s", CODELIST_BATCH_MAX_SIZE);
+
+        final Map<String, CodelistBatchItemDTO> codelists = new LinkedHashMap<>();
+        final List<String> notModified = new ArrayList<>();
+        for (final String codelistId : new LinkedHashSet<>(codelistIds)) {
+            final PreparedPayload payload = getCachedCodeListStrict(sdkVersion, codelistId, langCode).getPayload();
+            if (etags != null && payload.matchesEtag(etags.get(codelistId))) {
+                notModified.add(codelistId);
+            } else {
+                codelists.put(codelistId, new CodelistBatchItemDTO(payload.getIdentityEtag(), payload.getData()));
+            }
+        }
+        return preparedPayloadFactory.ofEnvelope(new CodelistBatchDTO(codelists, notModified),
+                "codelist-batch-" + sdkVersion + "-" + langCode);
+    }
+
+    /**
+     * Serves one level of the hierarchy of an SDK codelist: the children of the given code (the roots
+     * if null) with their counts, and the path from the root to the code.
+     */
+    @Override
+    public CodelistTreeDTO serveCodelistTree(final SdkVersion sdkVersion, final String codelistId, final String langCode,
+                                             final String parentCode) {
+        final CodelistTree tree = getCachedCodeListStrict(sdkVersion, codelistId, langCode).getTree();
+
+        final List<CodelistTreeNodeDTO> path = parentCode == null ? List.of()
+                : tree.getPath(parentCode).stream().map(row -> toTreeNode(tree, row)).toList();
+        final List<CodelistTreeNodeDTO> children = tree.getChildren(parentCode).stream()
+                .map(row -> toTreeNode(tree, row))
+                .toList();
+        return new CodelistTreeDTO(codelistId, parentCode, path, children);
+    }
+
+    private static CodelistTreeNodeDTO toTreeNode(final CodelistTree tree, final int row) {
+        return new CodelistTreeNodeDTO(tree.getRowNode(row), tree.getChildCount(row), tree.getDescendantCount(row));
+    }
+
+    /**
+     * @return The codelist from cache, loaded if missing. Null if the language is not supported
+     */
+    private CachedCodelist getCachedCodeList(final SdkVersion sdkVersion, final String codelistId, final String langCode) {
+        if (langCode == null || !supportedLanguages.contains(langCode)) {
+            return null;
+        }
+        return codeListCache.get(generateCodeListsKey(sdkVersion.toString(), langCode, codelistId),
+                k -> loadCodeList(sdkVersion, codelistId, codeListPathsBySdk.get(sdkVersion.toString()).get(codelistId),
+                        List.of(Language.valueOfFromLocale(langCode))).codeListByLangCode().get(langCode));
+    }
+
+    private CachedCodelist getCachedCodeListStrict(final SdkVersion sdkVersion, final String codelistId, final String langCode) {
         Validate.isTrue(isCodeListIdPermittedForSdk(sdkVersion, codelistId), "codelistId=%s not permitted", codelistId);
-        return codeListsMap.get(generateCodeListsKey(sdkVersion.toString(), langCode, codelistId));
+        final CachedCodelist codelist = getCachedCodeList(sdkVersion, codelistId, langCode);
+        Validate.notNull(codelist, "codelistId=%s not available for langCode=%s", codelistId, langCode);
+        return codelist;
     }
 
     /**
-     * Serves basic information about the SDK like fields.json and codelists.json data required to
-     * build the form in the UI.
+     * Serves the basic information about the SDK already serialized in the response envelope, plain and gzip
+     * compressed. The bundle of all the fields is built at startup, the one of a notice subtype at the first request.
      *
-     * @param sdkVersion The version for selecting the correct SDK.
+     * @param sdkVersion    The version for selecting the correct SDK.
+     * @param noticeSubType Optional notice subtype (e.g. "16"), to serve only the fields and nodes it uses
      */
     @Override
-    public ObjectNode serveSdkBasicMetadata(final SdkVersion sdkVersion) {
+    public PreparedPayload serveSdkBasicMetadataPayload(final SdkVersion sdkVersion, final String noticeSubType) {
         Validate.notNull(sdkVersion, "sdkVersion is null");
+        final String key = sdkVersion + "|" + Objects.toString(noticeSubType, "");
+        return basicMetadataCache.get(key, k -> preparedPayloadFactory.ofEnvelope(buildSdkBasicMetadata(sdkVersion, noticeSubType),
+                "basic-metadata-" + sdkVersion + (noticeSubType != null ? "-" + noticeSubType : "")));
+    }
 
-        final JsonNode fieldsJson = readSdkFieldsJson(sdkVersion);
+    private ObjectNode buildSdkBasicMetadata(final SdkVersion sdkVersion, final String noticeSubType) {
+        Validate.notNull(sdkVersion, "sdkVersion is null");
+
+        final ObjectNode fieldsJson = (ObjectNode) readSdkFieldsJson(sdkVersion);
         final JsonNode codelistsJson = readSdkCodelistsJson(sdkVersion);
 
+        BasicMetadataProjection.removeProperties(fieldsJson, basicMetadataConfig.getExcludedProperties());
+        if (noticeSubType != null) {
+            BasicMetadataProjection.retainNoticeType(fieldsJson, readJsonFile(getNoticeTypePathStrict(sdkVersion, noticeSubType)));
+        }
+
         // Instead of doing several separate calls, it is simpler to group basic information in one go.
         final ObjectNode basicInfoJson = JsonUtils.createObjectNode();
         basicInfoJson.set("fieldsJson", fieldsJson);
@@ -296,73 +519,92 @@ public class SdkServiceImpl extends BaseService implements SdkService {
     }
 
     /**
-     * Common SDK folder logic for reading JSON files.
-     *
-     * <p>
-     * PERFORMANCE: To simplify we serve the entire JSON, it is possible that the application does not
-     * everything or that some information could be filtered before it is served to reduce the passed
-     * data. We do not go this far in the editor demo.
-     * </p>
+     * Serves the translations of fields and groups already serialized in the response envelope. Without filters
+     * the payload built when the translations are loaded is returned; with a key prefix and/or a notice subtype
+     * the subset is taken from the sorted keys and kept serialized as well.
      */
     @Override
-    public JsonNode serveSdkJsonFile(final SdkVersion sdkVersion,
-                                     final PathResource resourceType, final String noticeId) {
-        Validate.notNull(sdkVersion, "Undefined SDK version");
-        Validate.notNull(noticeId, "Undefined Notice ID");
-
-        final String filenameForDownload = String.format("%s.json", noticeId);
-
-        try {
-
-            final Path path = SdkResourceLoader.getResourceAsPath(sdkVersion, resourceType,
-                    filenameForDownload, eformsSdkDir);
-
-            try (InputStream is = Files.newInputStream(path)) {
-                if (is == null) {
-                    throw new RuntimeException(String.format("InputStream is null for %s", path));
-                }
+    public PreparedPayload serveTranslationsPayload(final SdkVersion sdkVersion, final String langCode,
+                                                    final String prefix, final String noticeSubType) {
 
-                final ObjectMapper mapper = JsonUtils.getStandardJacksonObjectMapper();
-                return mapper.readValue(is, JsonNode.class);
-
-            } catch (final IOException ex) {
-                log.info("Error responding with file '{}' for download.", path, ex);
-                throw new RuntimeException("IOException writing file to output stream.", ex);
-            }
+        Validate.notNull(sdkVersion, "Undefined SDK version");
+        Validate.notNull(langCode, "Undefined Lang Code");
 
-        } catch (Exception ex) {
-            log.error(ex.toString(), ex);
-            throw new RuntimeException(
-                    String.format("Exception serving JSON file %s", filenameForDownload), ex);
+        final CachedTranslations translations = getCachedTranslations(sdkVersion.toString(), langCode);
+        Validate.isTrue(translations != null, "langCode=%s not supported", langCode);
+        if (StringUtils.isEmpty(prefix) && noticeSubType == null) {
+            return translations.payload();
         }
+        Validate.isTrue(prefix == null || prefix.length() <= TRANSLATION_PREFIX_MAX_LENGTH,
+                "prefix longer than %s characters", TRANSLATION_PREFIX_MAX_LENGTH);
+        final Path path = noticeSubType != null ? getNoticeTypePathStrict(sdkVersion, noticeSubType) : null;
+
+        final String key = sdkVersion + "|" + langCode + "|" + Objects.toString(noticeSubType, "") + "|" + Objects.toString(prefix, "");
+        return translationSubsetCache.get(key, k -> {
+            final Set<String> ids = path != null ? collectNoticeTypeIds(sdkVersion, readJsonFile(path)) : null;
+            return preparedPayloadFactory.ofEnvelope(filterTranslations(translations, prefix, ids),
+                    "translations-" + sdkVersion + "-" + langCode);
+        });
     }
 
-    @Override
-    public JsonNode serveTranslations(final SdkVersion sdkVersion, final String langCode) {
-
-        Validate.notNull(sdkVersion, "Undefined SDK version");
-        Validate.notNull(langCode, "Undefined Lang Code");
-
-        return JsonUtils.getStandardJacksonObjectMapper().convertValue(
-                fieldsAndGroupsMap.get(generateFieldsAndGroupsKey(sdkVersion.toString(), langCode)),
-                JsonNode.class
-        );
+    /**
+     * @param prefix Il prefisso delle chiavi (es. "field|name|BT-"), tutte se vuoto
+     * @param ids    Gli id di fields, nodes e groups ammessi, tutti se null
+     * @return Le traduzioni filtrate, in ordine di chiave
+     */
+    private static Map<String, String> filterTranslations(final CachedTranslations translations, final String prefix,
+                                                          final Set<String> ids) {
+        final String from = Objects.toString(prefix, "");
+        final Map<String, String> filtered = new TreeMap<>();
+        // Le chiavi con lo stesso prefisso sono contigue nell'indice ordinato: ci si ferma alla prima diversa
+        for (final Map.Entry<String, String> entry : translations.fieldsAndGroups().tailMap(from, true).entrySet()) {
+            final String key = entry.getKey();
+            if (!key.startsWith(from)) {
+                break;
+            }
+            // Le chiavi sono nella forma "tipo|etichetta|id"
+            if (ids == null || ids.contains(key.substring(key.lastIndexOf('|') + 1))) {
+                filtered.put(key, entry.getValue());
+            }
+        }
+        return filtered;
     }
 
-    private ObjectNode buildJsonFromCodelistId(final String codelistId, final Path path,
-                                               final String langCode) throws IOException {
+    /**
+     * Builds the JSON of a codelist for all the given languages, reading and parsing the .gc file once.
+     *
+     * @return The codelist as served to the form, by language code
+     */
+    private Map<String, ObjectNode> buildJsonFromCodelistId(final String codelistId, final Path path,
+                                                            final List<Language> languages) throws IOException {
         // Use GC Helger lib to load SDK .gc file.
         final CustomGenericodeMarshaller marshaller = GenericodeTools.getMarshaller();
+        final CodeListDocument gcDoc;
         try (InputStream is = Files.newInputStream(path)) {
-
             // Transform the XML to Java objects.
-            final CodeListDocument gcDoc = GenericodeTools.parseGenericode(is, marshaller);
+            gcDoc = GenericodeTools.parseGenericode(is, marshaller);
+        }
 
-            final String shortName = gcDoc.getIdentification().getShortNameValue();
-            final String longName = gcDoc.getIdentification().getLongNameAtIndex(0).getValue();
+        final String shortName = gcDoc.getIdentification().getShortNameValue();
+        final String longName = gcDoc.getIdentification().getLongNameAtIndex(0).getValue();
+
+        // Posizione delle colonne di interesse nei valori di una riga, risolta una sola volta per documento.
+        // Example: "en "to "eng_label"
+        final Map<String, Integer> slotByColumnId = new HashMap<>();
+        slotByColumnId.put(GC_COLUMN_CODE, GC_SLOT_CODE);
+        slotByColumnId.put(GC_COLUMN_PARENT_CODE, GC_SLOT_PARENT_CODE);
+        slotByColumnId.put(GC_COLUMN_ENG_LABEL, GC_SLOT_ENG_LABEL);
+        slotByColumnId.put(GC_COLUMN_NAME, GC_SLOT_NAME);
+        final int[] labelSlots = new int[languages.size()];
+        for (int i = 0; i < languages.size(); i++) {
+            labelSlots[i] = slotByColumnId.computeIfAbsent(languages.get(i).getGenericodeLanguage(),
+                    k -> slotByColumnId.size());
+        }
 
-            final ObjectMapper jsonMapper = JsonUtils.getStandardJacksonObjectMapper();
-            final ObjectNode jsonCodelist = jsonMapper.createObjectNode();
+        final Map<String, ObjectNode> codelistByLangCode = new LinkedHashMap<>();
+        final ArrayNode[] jsonRowsByLanguage = new ArrayNode[languages.size()];
+        for (int i = 0; i < languages.size(); i++) {
+            final ObjectNode jsonCodelist = JsonUtils.createObjectNode();
 
             // By convention of the SDK the longname is the codelist identifier.
             jsonCodelist.put("id", longName);
@@ -371,47 +613,42 @@ public class SdkServiceImpl extends BaseService implements SdkService {
             jsonCodelist.put("longName", longName);
             jsonCodelist.put("shortName", shortName);
 
-            final ArrayNode jsonRows = jsonCodelist.putArray("codes");
-
-            // Example: "en "to "eng_label"
-            final Language desiredLang = Language.valueOfFromLocale(langCode);
-            final String genericodeLang = desiredLang.getGenericodeLanguage();
-
-            final List<Row> gcRows = gcDoc.getSimpleCodeList().getRow();
-            for (final Row gcRow : gcRows) {
-
-                final List<Value> gcRowValues = gcRow.getValue();
-                final Optional<Value> technicalCodeValOpt = gcFindFirstColumnRef(gcRowValues, "code");
-                final Optional<Value> parentCodeValOpt = gcFindFirstColumnRef(gcRowValues, "parentCode");
-
-                final String technicalCode;
-                if (technicalCodeValOpt.isPresent()) {
-                    technicalCode = technicalCodeValOpt.get().getSimpleValueValue();
-                    Validate.notBlank("technicalCode is blank for codelistId=%s", codelistId);
-
-                    // Get desired language first, fallback to eng.
-                    final Optional<Value> desiredLabelOpt = gcFindFirstColumnRef(gcRowValues, genericodeLang);
-                    if (desiredLabelOpt.isPresent()) {
-                        putCodeValueAndLangCode(codelistId, langCode, jsonMapper, jsonRows, technicalCode, desiredLabelOpt, parentCodeValOpt);
-                    } else {
-                        final Optional<Value> englishLabelOpt = gcFindFirstColumnRef(gcRowValues, "eng_label");
-                        if (englishLabelOpt.isPresent()) {
-                            putCodeValueAndLangCode(codelistId, langCode, jsonMapper, jsonRows, technicalCode,
-                                    englishLabelOpt, parentCodeValOpt);
-                        } else {
-                            // Just take the Name and assume it is in english.
-                            final Optional<Value> nameLabelOpt = gcFindFirstColumnRef(gcRowValues, "Name");
-                            if (nameLabelOpt.isPresent()) {
-                                putCodeValueAndLangCode(codelistId, langCode, jsonMapper, jsonRows, technicalCode,
-                                        nameLabelOpt, parentCodeValOpt);
-                            }
-                        }
-                    }
+            jsonRowsByLanguage[i] = jsonCodelist.putArray("codes");
+            codelistByLangCode.put(languages.get(i).getLocale().getLanguage(), jsonCodelist);
+        }
+
+        final Value[] slots = new Value[slotByColumnId.size()];
+        for (final Row gcRow : gcDoc.getSimpleCodeList().getRow()) {
+
+            // Un'unica scansione dei valori della riga, a parita' di colonna vale il primo valore
+            Arrays.fill(slots, null);
+            for (final Value value : gcRow.getValue()) {
+                final Integer slot = slotByColumnId.get(((Column) value.getColumnRef()).getId());
+                if (slot != null && slots[slot] == null) {
+                    slots[slot] = value;
                 }
             }
 
-            return jsonCodelist;
+            if (slots[GC_SLOT_CODE] == null) {
+                continue;
+            }
+            final String technicalCode = slots[GC_SLOT_CODE].getSimpleValueValue();
+            final Optional<Value> parentCodeValOpt = Optional.ofNullable(slots[GC_SLOT_PARENT_CODE]);
+
+            for (int i = 0; i < languages.size(); i++) {
+                // Get desired language first, fallback to eng, then just take the Name and assume it is in english.
+                Value label = slots[labelSlots[i]];
+                if (label == null) {
+                    label = slots[GC_SLOT_ENG_LABEL] != null ? slots[GC_SLOT_ENG_LABEL] : slots[GC_SLOT_NAME];
+                }
+                if (label != null) {
+                    putCodeValueAndLangCode(codelistId, languages.get(i).getLocale().getLanguage(),
+                            jsonRowsByLanguage[i], technicalCode, Optional.of(label), parentCodeValOpt);
+                }
+            }
         }
+
+        return codelistByLangCode;
     }
 
     /**
@@ -422,8 +659,7 @@ public class SdkServiceImpl extends BaseService implements SdkService {
         Validate.notNull(sdkVersion, "Undefined SDK version");
         try {
             final Path path = readSdkPath(sdkVersion, resourceType, filenameForDownload);
-            final ObjectMapper mapper = JsonMapper.builder().build();
-            return mapper.readTree(path.toFile());
+            return JsonUtils.getJsonNodeReader().readValue(path.toFile());
         } catch (IOException ex) {
             log.error(ex.toString(), ex);
             throw new RuntimeException(
@@ -451,95 +687,434 @@ public class SdkServiceImpl extends BaseService implements SdkService {
 
     @Override
     public JsonNode readNoticeTypesJson(final SdkVersion sdkVersion) {
-        return readSdkJsonFile(sdkVersion, SdkConstants.SdkResource.NOTICE_TYPES, SDK_NOTICE_TYPES_JSON);
+        final JsonNode snapshotJson = readSnapshotJson(sdkVersion, SNAPSHOT_KEY_NOTICE_TYPES);
+        return snapshotJson != null ? snapshotJson
+                : readSdkJsonFile(sdkVersion, SdkConstants.SdkResource.NOTICE_TYPES, SDK_NOTICE_TYPES_JSON);
     }
 
     /**
-     * PERFORMANCE: we serve the entire JSON for simplicity in the editor demo, but note that some
-     * data may not be used at all in the front-end. This could be optimised by removing this data
-     * here before sending the response. Some information could also be retrieved dynamically on
-     * demand later (case by case).
+     * Reads fields.json, from the snapshot if present. The tree is new at every call, so callers may modify it
+     * (e.g. the basic-meta-data projection).
      */
     @Override
     public JsonNode readSdkFieldsJson(final SdkVersion sdkVersion) {
-        return readSdkJsonFile(sdkVersion, SdkConstants.SdkResource.FIELDS, SDK_FIELDS_JSON);
+        final JsonNode snapshotJson = readSnapshotJson(sdkVersion, SNAPSHOT_KEY_FIELDS);
+        return snapshotJson != null ? snapshotJson
+                : readSdkJsonFile(sdkVersion, SdkConstants.SdkResource.FIELDS, SDK_FIELDS_JSON);
     }
 
-    // Carica tutti i code list
-    private void loadAllAvailableCodeLists() {
-        log.info("Starting loading of all code lists.");
+    private JsonNode readSnapshotJson(final SdkVersion sdkVersion, final String key) {
+        final SdkSnapshot snapshot = snapshotBySdk.get(snapshotKey(sdkVersion));
+        return snapshot != null ? snapshot.getJson(key) : null;
+    }
+
+    /**
+     * Serve a notice type definition (notice-types/{noticeId}.json) already serialized in the response envelope,
+     * plain and gzip compressed. The file is embedded as is, without parsing, at the first request.
+     */
+    @Override
+    public PreparedPayload serveNoticeTypePayload(final SdkVersion sdkVersion, final String noticeId) {
+        Validate.notNull(sdkVersion, "Undefined SDK version");
+        final Path path = getNoticeTypePathStrict(sdkVersion, noticeId);
+        return noticeTypeCache.get(sdkVersion + "|" + noticeId, k -> {
+            try {
+                return preparedPayloadFactory.ofEnvelope(new RawValue(Files.readString(path)),
+                        "notice-type-" + sdkVersion + "-" + noticeId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Serves in one document what the UI needs to open the form of a notice subtype: the notice type content,
+     * the fields and nodes it uses, their translations and the references to the codelists. The document is
+     * built at the first request and kept already serialized, plain and gzip compressed.
+     */
+    @Override
+    public PreparedPayload serveFormBootstrapPayload(final SdkVersion sdkVersion, final String noticeId, final String langCode) {
+        final Path path = getNoticeTypePathStrict(sdkVersion, noticeId);
+        Validate.isTrue(langCode != null && supportedLanguages.contains(langCode), "langCode=%s not supported", langCode);
+        return bootstrapCache.get(sdkVersion + "|" + noticeId + "|" + langCode, k -> preparedPayloadFactory.ofEnvelope(
+                buildFormBootstrap(sdkVersion, noticeId, langCode, path), "bootstrap-" + sdkVersion + "-" + noticeId + "-" + langCode));
+    }
+
+    private FormBootstrapDTO buildFormBootstrap(final SdkVersion sdkVersion, final String noticeId, final String langCode,
+                                                final Path path) {
+        final JsonNode noticeTypeJson = readJsonFile(path);
+
+        // Gli stessi fields e nodes di basic-meta-data?noticeSubType=
+        final ObjectNode fieldsJson = (ObjectNode) readSdkFieldsJson(sdkVersion);
+        BasicMetadataProjection.removeProperties(fieldsJson, basicMetadataConfig.getExcludedProperties());
+        BasicMetadataProjection.retainNoticeType(fieldsJson, noticeTypeJson);
+
+        // Traduzioni dei groups del notice type e dei fields e nodes mantenuti
+        final Map<String, String> translations = filterTranslations(getCachedTranslations(sdkVersion.toString(), langCode),
+                null, collectNoticeTypeIds(fieldsJson, noticeTypeJson));
+
+        // Solo i riferimenti alle code lists, il contenuto e' servito dall'endpoint batch
+        final List<CodelistReferenceDTO> codelists = new ArrayList<>();
+        for (final String codelistId : BasicMetadataProjection.collectCodelistIds(fieldsJson)) {
+            if (isCodeListIdPermittedForSdk(sdkVersion, codelistId)) {
+                codelists.add(new CodelistReferenceDTO(codelistId, getCodeListEtag(sdkVersion, codelistId, langCode)));
+            } else {
+                log.debug("Codelist: {} of notice type: {} not available for sdk: {}", codelistId, noticeId, sdkVersion);
+            }
+        }
+
+        return new FormBootstrapDTO(sdkVersion.toString(), noticeId, langCode, noticeTypeJson, fieldsJson, translations, codelists);
+    }
+
+    /**
+     * @return The ETag of the codelist response. A codelist not loaded yet is read and hashed but not cached,
+     * so opening a form does not fill the codelist cache nor evict the codelists in use
+     */
+    private String getCodeListEtag(final SdkVersion sdkVersion, final String codelistId, final String langCode) {
+        final String key = generateCodeListsKey(sdkVersion.toString(), langCode, codelistId);
+        final String etag = codeListEtags.get(key);
+        if (etag != null) {
+            return etag;
+        }
+        // Calcolato fuori dalla mappa: richieste concorrenti possono leggere la stessa code list, resta il primo ETag
+        final Map<String, ObjectNode> jsonByLangCode = loadCodeListJson(sdkVersion, codelistId,
+                List.of(Language.valueOfFromLocale(langCode)));
+        codeListEtags.putIfAbsent(key, preparedPayloadFactory.etagOfEnvelopeWithData(jsonByLangCode.get(langCode),
+                codeListEtagPrefix(sdkVersion, langCode, codelistId)));
+        return codeListEtags.get(key);
+    }
+
+    // Id di groups, fields e nodes di un notice subtype, con i fields attributo e i nodes antenati
+    private Set<String> collectNoticeTypeIds(final SdkVersion sdkVersion, final JsonNode noticeTypeJson) {
+        final ObjectNode fieldsJson = (ObjectNode) readSdkFieldsJson(sdkVersion);
+        BasicMetadataProjection.retainNoticeType(fieldsJson, noticeTypeJson);
+        return collectNoticeTypeIds(fieldsJson, noticeTypeJson);
+    }
+
+    private static Set<String> collectNoticeTypeIds(final JsonNode retainedFieldsJson, final JsonNode noticeTypeJson) {
+        final Set<String> ids = BasicMetadataProjection.collectContentIds(noticeTypeJson);
+        retainedFieldsJson.path(SdkConstants.FIELDS_JSON_FIELDS_KEY).forEach(field -> ids.add(field.path("id").asText()));
+        retainedFieldsJson.path(SdkConstants.FIELDS_JSON_XML_STRUCTURE_KEY).forEach(node -> ids.add(node.path("id").asText()));
+        return ids;
+    }
+
+    // SECURITY: solo i file presenti all'avvio, il noticeId non viene mai usato per costruire un percorso
+    private Path getNoticeTypePathStrict(final SdkVersion sdkVersion, final String noticeId) {
+        Validate.notNull(sdkVersion, "Undefined SDK version");
+        Validate.notNull(noticeId, "Undefined Notice ID");
+        final Map<String, Path> noticeTypePaths = noticeTypePathsBySdk.get(sdkVersion.toString());
+        final Path path = noticeTypePaths != null ? noticeTypePaths.get(noticeId) : null;
+        Validate.isTrue(path != null, "noticeId=%s not permitted", noticeId);
+        return path;
+    }
+
+    private static JsonNode readJsonFile(final Path path) {
+        try {
+            return JsonUtils.getJsonNodeReader().readTree(path.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Legge i notice types di ogni SDK, come per l'elenco di getNoticeSubTypes
+    private void loadAvailableNoticeTypes() {
+        this.supportedSdksObj.forEach(sdkVersion -> {
+            final Path dir = SdkResourceLoader.getResourceAsPath(sdkVersion, SdkConstants.SdkResource.NOTICE_TYPES, eformsSdkDir);
+            final Map<String, Path> noticeTypePaths = new HashMap<>();
+            try {
+                for (final String filename : JavaTools.listFiles(dir)) {
+                    if (filename.endsWith(".json") && !SDK_NOTICE_TYPES_JSON.equals(filename)) {
+                        noticeTypePaths.put(filename.substring(0, filename.lastIndexOf('.')), dir.resolve(filename));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            noticeTypePathsBySdk.put(sdkVersion.toString(), Collections.unmodifiableMap(noticeTypePaths));
+            log.info("Notice types available for sdk: {}: {}", sdkVersion, noticeTypePaths.size());
+        });
+    }
+
+    private static String snapshotKey(final SdkVersion sdkVersion) {
+        return VersionHelper.buildSdkVersionWithoutPatch(sdkVersion);
+    }
+
+    /**
+     * Builds the snapshot of an SDK version: code lists and translations in all the supported languages,
+     * fields.json and notice-types.json. Each value is encoded and written to the snapshot file as soon as it
+     * is built, so only the code lists being parsed are in memory.
+     */
+    private void buildSnapshot(final SdkVersion sdkVersion, final SdkSnapshotWriter writer) {
+        log.info("Building SDK snapshot for sdk: {} and languages: {}", sdkVersion, supportedLanguages);
+        final List<Language> languages = supportedLanguages.stream()
+                .map(Language::valueOfFromLocale)
+                .toList();
+
+        // Un task per file ".gc", come per il precaricamento: ogni task scrive le proprie code lists
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        codeListPathsBySdk.get(sdkVersion.toString()).forEach((codeListId, path) -> tasks.add(() -> {
+            buildJsonFromCodelistId(codeListId, path, languages).forEach((langCode, codeList) ->
+                    writer.putJson(codeListSnapshotKey(langCode, codeListId), codeList));
+            return null;
+        }));
+        invokeAllOnCodeListLoaderPool(tasks);
+
+        supportedLanguages.forEach(langCode ->
+                writer.putStringMap(SNAPSHOT_KEY_TRANSLATIONS + langCode, readFieldsAndGroups(sdkVersion, langCode)));
+
+        writer.putJson(SNAPSHOT_KEY_FIELDS, readSdkJsonFile(sdkVersion, SdkConstants.SdkResource.FIELDS, SDK_FIELDS_JSON));
+        writer.putJson(SNAPSHOT_KEY_NOTICE_TYPES,
+                readSdkJsonFile(sdkVersion, SdkConstants.SdkResource.NOTICE_TYPES, SDK_NOTICE_TYPES_JSON));
+    }
+
+    private static String codeListSnapshotKey(final String langCode, final String codeListId) {
+        return SNAPSHOT_KEY_CODELIST + langCode + "|" + codeListId;
+    }
+
+    // Legge gli id dei code list di ogni SDK e il relativo file ".gc" da codelists.json
+    private void loadAvailableCodeListsId() {
         this.supportedSdksObj.forEach(sdkVersion -> {
-            List<String> codeListsId = new ArrayList<>();
+            final Map<String, Path> codeListPaths = new LinkedHashMap<>();
             // Read the file codelists.json for the current SDK version
             final JsonNode codelistsJson = readSdkCodelistsJson(sdkVersion);
             // for each codelist...
             for (JsonNode jsonNode : codelistsJson.get("codelists")) {
-                // for each supported language...
-                this.supportedLanguages.forEach(supportedLanguage -> {
-                    // Retrieve the codeListId
-                    String codeListId = jsonNode.get("id").asText();
-                    codeListsId.add(codeListId);
-                    // Retrieve the filename
-                    String filename = jsonNode.get("filename").asText();
-                    // Build the path for the ".gc" file
-                    final Path path = SdkResourceLoader.getResourceAsPath(sdkVersion, SdkConstants.SdkResource.CODELISTS, filename, eformsSdkDir);
-                    try {
-                        // Retrieve the langCode
-                        final Language lang = Language.valueOfFromLocale(supportedLanguage);
-                        final String langCode = lang.getLocale().getLanguage();
-
-                        // Load the codelist
-                        log.debug("Loading codelist: {} for sdk: {} and language: {}", codeListId, sdkVersion, langCode);
-                        codeListsMap.put(
-                                generateCodeListsKey(sdkVersion.toString(), langCode, codeListId),
-                                buildJsonFromCodelistId(codeListId, path, langCode)
-                        );
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+                // Retrieve the codeListId
+                final String codeListId = jsonNode.get("id").asText();
+                // Retrieve the filename
+                final String filename = jsonNode.get("filename").asText();
+                // Build the path for the ".gc" file
+                final Path path = SdkResourceLoader.getResourceAsPath(sdkVersion, SdkConstants.SdkResource.CODELISTS, filename, eformsSdkDir);
+                codeListPaths.putIfAbsent(codeListId, path);
             }
-            availableCodeListsId.put(sdkVersion.toString(), codeListsId.stream().toList());
+            codeListPathsBySdk.put(sdkVersion.toString(), Collections.unmodifiableMap(codeListPaths));
         });
-        log.info("All code lists were loaded.");
+    }
+
+    // Precarica i code list delle lingue indicate, dallo snapshot se presente
+    private void loadAllAvailableCodeLists(final List<String> prewarmLanguages) {
+        log.info("Starting loading of all code lists for languages: {}.", prewarmLanguages);
+        final long start = System.nanoTime();
+
+        final List<Language> languages = prewarmLanguages.stream()
+                .map(Language::valueOfFromLocale)
+                .toList();
+
+        // Un task per file ".gc": ogni file viene letto una sola volta per tutte le lingue
+        final List<Callable<LoadedCodeList>> tasks = new ArrayList<>();
+        if (!languages.isEmpty()) {
+            this.supportedSdksObj.forEach(sdkVersion -> codeListPathsBySdk.get(sdkVersion.toString())
+                    .forEach((codeListId, path) -> tasks.add(() -> loadCodeList(sdkVersion, codeListId, path, languages))));
+        }
+
+        for (final LoadedCodeList loaded : invokeAllOnCodeListLoaderPool(tasks)) {
+            loaded.codeListByLangCode().forEach((langCode, codeList) -> codeListCache.put(
+                    generateCodeListsKey(loaded.sdkVersion().toString(), langCode, loaded.codeListId()), codeList));
+        }
+
+        final long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("meforms.codelists.load")
+                .description("Time spent preloading the code lists at startup")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        log.info("All code lists were loaded: {} files, {} code lists in cache ({} bytes) in {} ms.", tasks.size(),
+                codeListCache.size(), codeListCache.weight(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private static <T> List<T> invokeAllOnCodeListLoaderPool(final List<Callable<T>> tasks) {
+        final ForkJoinPool pool = buildCodeListLoaderPool();
+        try {
+            final List<T> results = new ArrayList<>(tasks.size());
+            for (final Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading code lists", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error loading code lists", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private LoadedCodeList loadCodeList(final SdkVersion sdkVersion, final String codeListId, final Path path,
+                                        final List<Language> languages) {
+        log.debug("Loading codelist: {} for sdk: {} and languages: {}", codeListId, sdkVersion, languages);
+        final Map<String, CachedCodelist> codeListByLangCode = new HashMap<>();
+        loadCodeListJson(sdkVersion, codeListId, path, languages).forEach((langCode, codeList) ->
+                codeListByLangCode.put(langCode, toCachedCodeList(sdkVersion, codeListId, langCode, codeList)));
+        return new LoadedCodeList(sdkVersion, codeListId, codeListByLangCode);
+    }
+
+    private Map<String, ObjectNode> loadCodeListJson(final SdkVersion sdkVersion, final String codeListId,
+                                                     final List<Language> languages) {
+        return loadCodeListJson(sdkVersion, codeListId, codeListPathsBySdk.get(sdkVersion.toString()).get(codeListId), languages);
+    }
+
+    // Il json della code list per lingua, dallo snapshot se presente, altrimenti dal file ".gc"
+    private Map<String, ObjectNode> loadCodeListJson(final SdkVersion sdkVersion, final String codeListId, final Path path,
+                                                     final List<Language> languages) {
+        final SdkSnapshot snapshot = snapshotBySdk.get(snapshotKey(sdkVersion));
+        final Map<String, ObjectNode> jsonByLangCode = snapshot != null ? readCodeListFromSnapshot(snapshot, codeListId, languages) : null;
+        if (jsonByLangCode != null) {
+            return jsonByLangCode;
+        }
+        try {
+            return buildJsonFromCodelistId(codeListId, path, languages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Risposta e gerarchia padre -> figli precalcolate insieme alla code list
+    private CachedCodelist toCachedCodeList(final SdkVersion sdkVersion, final String codeListId, final String langCode,
+                                            final ObjectNode codeList) {
+        // Le risposte batch riusano i dati della risposta della singola code list
+        final PreparedPayload payload = preparedPayloadFactory.ofEnvelopeWithData(codeList,
+                codeListEtagPrefix(sdkVersion, langCode, codeListId));
+        codeListEtags.put(generateCodeListsKey(sdkVersion.toString(), langCode, codeListId), payload.getIdentityEtag());
+        return new CachedCodelist(codeList, langCode, payload);
+    }
+
+    private static String codeListEtagPrefix(final SdkVersion sdkVersion, final String langCode, final String codeListId) {
+        return "codelist-" + sdkVersion + "-" + langCode + "-" + codeListId;
+    }
+
+    /**
+     * @return The codelist by language code, null if a language is missing in the snapshot
+     */
+    private static Map<String, ObjectNode> readCodeListFromSnapshot(final SdkSnapshot snapshot, final String codeListId,
+                                                                    final List<Language> languages) {
+        final Map<String, ObjectNode> jsonByLangCode = new LinkedHashMap<>();
+        for (final Language language : languages) {
+            final String langCode = language.getLocale().getLanguage();
+            final JsonNode json = snapshot.getJson(codeListSnapshotKey(langCode, codeListId));
+            if (json == null) {
+                return null;
+            }
+            jsonByLangCode.put(langCode, (ObjectNode) json);
+        }
+        return jsonByLangCode;
+    }
+
+    private static ForkJoinPool buildCodeListLoaderPool() {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            // JAXB cerca l'implementazione tramite il context class loader (es. nel jar di Spring Boot)
+            thread.setContextClassLoader(classLoader);
+            thread.setName("codelist-loader-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
     }
 
     private boolean isCodeListIdPermittedForSdk(final SdkVersion sdkVersion, final String codelistId) {
         Validate.notNull(sdkVersion, "sdkVersion null");
         Validate.notNull(codelistId, "codelistId null");
-        if (availableCodeListsId.containsKey(sdkVersion.toString())) {
-            List<String> codeListsId = availableCodeListsId.get(sdkVersion.toString());
-            return codeListsId.contains(codelistId);
-        }
-        return false;
+        final Map<String, Path> codeListPaths = codeListPathsBySdk.get(sdkVersion.toString());
+        return codeListPaths != null && codeListPaths.containsKey(codelistId);
     }
 
     private String generateCodeListsKey(String sdkVersion, String langCode, String codelistId) {
         return sdkVersion + "|" + langCode + "|" + codelistId;
     }
 
-    // Carica tutti i fields e i groups
-    private void loadAllAvailableFieldsAndGroups() {
-        log.info("Starting loading of all fields and groups.");
-        this.supportedSdksObj.forEach(sdkVersion -> {
-            this.supportedLanguages.forEach(langCode -> {
-                try {
-                    log.debug("Loading fields and groups for sdk: {} and language: {}", sdkVersion, langCode);
+    // Precarica i fields e i groups delle lingue indicate
+    private void loadAllAvailableFieldsAndGroups(final List<String> prewarmLanguages) {
+        log.info("Starting loading of all fields and groups for languages: {}.", prewarmLanguages);
+        this.supportedSdksObj.forEach(sdkVersion -> prewarmLanguages.forEach(langCode ->
+                translationCache.put(generateFieldsAndGroupsKey(sdkVersion.toString(), langCode),
+                        loadFieldsAndGroups(sdkVersion, langCode))));
+        log.info("All fields and groups were loaded: {} in cache ({} bytes).", translationCache.size(),
+                translationCache.weight());
+    }
+
+    private CachedTranslations loadFieldsAndGroups(final SdkVersion sdkVersion, final String langCode) {
+        final SdkSnapshot snapshot = snapshotBySdk.get(snapshotKey(sdkVersion));
+        Map<String, String> fieldsAndGroups = snapshot != null ? snapshot.getStringMap(SNAPSHOT_KEY_TRANSLATIONS + langCode) : null;
+        if (fieldsAndGroups == null) {
+            fieldsAndGroups = readFieldsAndGroups(sdkVersion, langCode);
+        }
+        // Indice ordinato per i filtri per prefisso; la risposta completa viene serializzata una sola volta
+        final NavigableMap<String, String> sorted = new TreeMap<>(fieldsAndGroups);
+        return new CachedTranslations(sorted, buildFieldLabels(sorted),
+                preparedPayloadFactory.ofEnvelope(sorted, "translations-" + sdkVersion + "-" + langCode));
+    }
+
+    private Map<String, String> readFieldsAndGroups(final SdkVersion sdkVersion, final String langCode) {
+        try {
+            log.debug("Loading fields and groups for sdk: {} and language: {}", sdkVersion, langCode);
 
-                    Map<String, String> tempMap = new HashMap<>();
+            Map<String, String> tempMap = new HashMap<>();
 
-                    // Read "fields"
-                    tempMap.putAll(getTranslations(sdkVersion, eformsSdkDir, "field", langCode));
-                    // Read "groups"
-                    tempMap.putAll(getTranslations(sdkVersion, eformsSdkDir, "group", langCode));
+            // Read "fields"
+            tempMap.putAll(getTranslations(sdkVersion, eformsSdkDir, "field", langCode));
+            // Read "groups"
+            tempMap.putAll(getTranslations(sdkVersion, eformsSdkDir, "group", langCode));
 
-                    fieldsAndGroupsMap.put(generateFieldsAndGroupsKey(sdkVersion.toString(), langCode), tempMap);
-                } catch (ParserConfigurationException | SAXException | IOException e) {
-                    throw new RuntimeException(e);
+            return tempMap;
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return The translations from cache, loaded if missing. Null if the SDK or the language are not supported
+     */
+    private CachedTranslations getCachedTranslations(final String sdkVersion, final String langCode) {
+        if (langCode == null || !supportedLanguages.contains(langCode) || !codeListPathsBySdk.containsKey(sdkVersion)) {
+            return null;
+        }
+        return translationCache.get(generateFieldsAndGroupsKey(sdkVersion, langCode),
+                k -> loadFieldsAndGroups(new SdkVersion(sdkVersion), langCode));
+    }
+
+    private static long estimateSizeInBytes(final CachedTranslations translations) {
+        long size = 0;
+        for (final Map.Entry<String, String> entry : translations.fieldsAndGroups().entrySet()) {
+            // Caratteri di chiave e testo (al piu' 2 byte) piu' gli oggetti della mappa e delle etichette
+            size += 2L * (entry.getKey().length() + entry.getValue().length()) + TRANSLATION_ENTRY_OVERHEAD;
+        }
+        return size + translations.payload().sizeInBytes();
+    }
+
+    /**
+     * Restituisce le etichette tradotte di un field/group.
+     *
+     * @param sdkVersion la versione SDK
+     * @param langCode   la lingua
+     * @param id         l'id del field/group (es.: BT-01-notice)
+     * @return le etichette, null se l'id non e' presente
+     */
+    public FieldLabelsDTO getFieldLabels(final String sdkVersion, final String langCode, final String id) {
+        final CachedTranslations translations = getCachedTranslations(sdkVersion, langCode);
+        return translations != null ? translations.labelsById().get(id) : null;
+    }
+
+    // Normalizza le chiavi "field|name|BT-01-notice" in un indice per id
+    private static Map<String, FieldLabelsDTO> buildFieldLabels(final Map<String, String> fieldsAndGroups) {
+        final Map<String, FieldLabelsDTO> labelsById = new HashMap<>();
+        fieldsAndGroups.forEach((key, value) -> {
+            final String[] parts = key.split("\\|");
+            if (parts.length < 2) {
+                return;
+            }
+            // Le chiavi sono nella forma "tipo|etichetta|id", l'informazione su "field" o "group" non serve
+            final String labelType = parts.length > 2 ? parts[1] : parts[0];
+            final String id = parts.length > 2 ? parts[2] : parts[1];
+            final FieldLabelsDTO labels = labelsById.computeIfAbsent(id, k -> new FieldLabelsDTO());
+            switch (labelType) {
+                case "name" -> labels.setName(value);
+                case "description" -> labels.setDescription(value);
+                case "hint" -> labels.setHint(value);
+                default -> {
+                    // altre etichette non usate
                 }
-            });
+            }
         });
-        log.info("All fields and groups were loaded.");
+        return labelsById;
     }
 
     private String generateFieldsAndGroupsKey(String sdkVersion, String langCode) {
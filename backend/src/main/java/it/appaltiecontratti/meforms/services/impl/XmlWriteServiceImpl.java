@@ -1,17 +1,17 @@
 package it.appaltiecontratti.meforms.services.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import eu.europa.ted.eforms.sdk.SdkConstants;
 import eu.europa.ted.eforms.sdk.SdkVersion;
 import it.appaltiecontratti.meforms.dto.CvsOutputDTO;
 import it.appaltiecontratti.meforms.helpers.VersionHelper;
-import it.appaltiecontratti.meforms.helpers.exclusion.ApplicationConfiguration;
+import it.appaltiecontratti.meforms.helpers.exclusion.ExclusionRules;
 import it.appaltiecontratti.meforms.helpers.notice.ConceptualModel;
 import it.appaltiecontratti.meforms.helpers.notice.FieldsAndNodes;
 import it.appaltiecontratti.meforms.helpers.notice.PhysicalModel;
+import it.appaltiecontratti.meforms.helpers.notice.SdkMetadata;
 import it.appaltiecontratti.meforms.helpers.notice.VisualModel;
+import it.appaltiecontratti.meforms.helpers.notice.XpathExpressionCache;
 import it.appaltiecontratti.meforms.helpers.validation.CsvValidationMode;
 import it.appaltiecontratti.meforms.services.*;
 import it.appaltiecontratti.meforms.util.JsonUtils;
@@ -24,15 +24,18 @@ import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.xml.sax.SAXException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
 
@@ -62,7 +65,7 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
     private boolean sortXmlElements;
 
     @Autowired
-    private SdkService sdkService;
+    private SdkMetadataRegistry sdkMetadataRegistry;
 
     @Autowired
     private NoticeValidationService noticeValidationService;
@@ -74,13 +77,16 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
     private XmlParserService xmlParserService;
 
     @Autowired
-    private ApplicationConfiguration applicationConfiguration;
+    private ExclusionRules exclusionRules;
+
+    @Autowired
+    private XpathExpressionCache xpathExpressionCache;
 
     /**
      * @param noticeJson The notice as JSON as built by the front-end form.
      */
     @Override
-    public String saveNoticeAsXml(final String noticeJson, final TimeZone timezone) throws Exception {
+    public String saveNoticeAsXml(final ObjectNode noticeJson, final TimeZone timezone) throws Exception {
         log.info("Execution start {}::saveNoticeAsXml", getClass().getSimpleName());
         if (log.isDebugEnabled())
             log.debug("Notice json {}", noticeJson);
@@ -105,49 +111,50 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
     }
 
     /**
-     * @param noticeJson The notice as JSON as built by the front-end form.
+     * @param noticeJson    The notice as JSON as built by the front-end form.
+     * @param bufferFactory The factory of the response buffer
      */
     @Override
-    public JsonNode validateUsingXsd(final String noticeJson, final TimeZone timezone) throws Exception {
-        log.info("Execution start {}::validateUsingXsd", getClass().getSimpleName());
+    public DataBuffer saveNoticeAsXmlBuffer(final ObjectNode noticeJson, final TimeZone timezone,
+                                            final DataBufferFactory bufferFactory) throws Exception {
+        log.info("Execution start {}::saveNoticeAsXmlBuffer", getClass().getSimpleName());
         if (log.isDebugEnabled())
             log.debug("Notice json {}", noticeJson);
 
-        // Traccio nell'MDC il json visuale
+        final PhysicalModel physicalModel =
+                buildPhysicalModel(noticeJson, debug, skipIfNoValue, sortXmlElements, timezone);
         try {
-            String tracciatoLog = LoggingUtils.getZippedLoggingString(noticeJson);
-            MDC.put(MDC_VISUAL_MODEL, tracciatoLog);
-        } catch (Exception e) {
-            log.error("Errore durante il salvataggio del tracciato visuale nell'MDC");
+            // Transform physical model to XML, written directly in the response buffer.
+            final DataBuffer noticeXml = physicalModel.toXmlDataBuffer(bufferFactory, true);
+
+            log.info("Execution end {}::saveNoticeAsXmlBuffer", getClass().getSimpleName());
+
+            return noticeXml;
+        } catch (final Exception e) {
+            // Catch any error, log some useful context and rethrow.
+            log.error("Error for notice uuid={}, sdkVersion={}", physicalModel.getNoticeId(),
+                    physicalModel.getSdkVersion().toNormalisedString(true));
+            throw e;
         }
+    }
 
-        final PhysicalModel physicalModel =
-                buildPhysicalModel(noticeJson, debug, skipIfNoValue, sortXmlElements, timezone);
+    /**
+     * @param noticeJson The notice as JSON as built by the front-end form.
+     */
+    @Override
+    public JsonNode validateUsingXsd(final ObjectNode noticeJson, final TimeZone timezone) throws Exception {
+        log.info("Execution start {}::validateUsingXsd", getClass().getSimpleName());
+        if (log.isDebugEnabled())
+            log.debug("Notice json {}", noticeJson);
+
+        final PhysicalModel physicalModel = buildPhysicalModelTraced(noticeJson, timezone);
         final SdkVersion sdkVersion = physicalModel.getSdkVersion();
         final UUID noticeUuid = physicalModel.getNoticeId();
         try {
             // Transform physical model to XML.
-            final String noticeXmlText = physicalModel.toXmlText(true);
+            final String noticeXmlText = toXmlTextTraced(physicalModel);
 
-            // Traccio nell'MDC l'XML
-            try {
-                if (StringUtils.isNotBlank(noticeXmlText)) {
-                    String tracciatoLog = LoggingUtils.getZippedLoggingString(noticeXmlText);
-                    MDC.put(MDC_PHYSICAL_MODEL, tracciatoLog);
-                }
-            } catch (Exception e) {
-                log.error("Errore durante il salvataggio dell'XML nell'MDC");
-            }
-
-            // Validate it using XSD.
-            final Optional<Path> mainXsdPathOpt = physicalModel.getMainXsdPathOpt();
-
-            final ObjectNode xsdReport = noticeValidationService.validateNoticeUsingXsd(noticeUuid,
-                    sdkVersion, noticeXmlText, mainXsdPathOpt);
-
-            final String jsonText = xsdReport.toPrettyString();
-            final ObjectMapper mapper = JsonUtils.getStandardJacksonObjectMapper();
-            final JsonNode jsonNode = mapper.readValue(jsonText, JsonNode.class);
+            final JsonNode jsonNode = validateUsingXsd(physicalModel, noticeXmlText);
 
             log.info("Execution end {}::validateUsingXsd", getClass().getSimpleName());
 
@@ -162,7 +169,7 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
     }
 
     @Override
-    public PhysicalModel buildPhysicalModel(final String noticeJson, final boolean debug,
+    public PhysicalModel buildPhysicalModel(final ObjectNode noticeJson, final boolean debug,
                                             final boolean skipIfNoValue, final boolean sortXml, final TimeZone timezone)
             throws Exception {
         final JsonNode visualRoot = noticeCleaner.cleanNotice(noticeJson);
@@ -186,20 +193,27 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
      * @param noticeJson The notice as JSON as built by the front-end form.
      */
     @Override
-    public Mono<CvsOutputDTO> validateUsingCvs(final String noticeJson, final TimeZone timezone, final String sdkVersion, final String langCode) throws Exception {
-        Validate.notBlank(noticeJson, "noticeJson is blank");
-
-        // Validazione XSD prima di effettuare il controllo CVS (lancia eccezione se validazione errata)
-        JsonNode jsonNode = this.validateUsingXsd(noticeJson, timezone);
-        log.info("Esito validazione XSD prima della validazione CVS: {}", jsonNode.toString());
+    public Mono<CvsOutputDTO> validateUsingCvs(final ObjectNode noticeJson, final TimeZone timezone, final String sdkVersion, final String langCode) throws Exception {
+        Validate.notNull(noticeJson, "noticeJson is null");
 
-        final PhysicalModel physicalModel =
-                buildPhysicalModel(noticeJson, debug, skipIfNoValue, sortXmlElements, timezone);
+        // Il physical model e l'XML vengono costruiti una sola volta e riutilizzati per la
+        // validazione XSD, la validazione CVS e l'XML restituito in output
+        final PhysicalModel physicalModel = buildPhysicalModelTraced(noticeJson, timezone);
         final UUID noticeUuid = physicalModel.getNoticeId();
-        //final SdkVersion sdkVersion = physicalModel.getSdkVersion();
+        final String noticeXmlText;
+        try {
+            // Transform physical model to XML.
+            noticeXmlText = toXmlTextTraced(physicalModel);
 
-        // Transform physical model to XML.
-        final String noticeXmlText = physicalModel.toXmlText(true);
+            // Validazione XSD prima di effettuare il controllo CVS (lancia eccezione se validazione errata)
+            final JsonNode jsonNode = validateUsingXsd(physicalModel, noticeXmlText);
+            log.info("Esito validazione XSD prima della validazione CVS: {}", jsonNode.toString());
+        } catch (final Exception e) {
+            // Catch any error, log some useful context and rethrow.
+            log.error("Error for notice uuid={}, sdkVersion={}", noticeUuid,
+                    physicalModel.getSdkVersion().toNormalisedString(true));
+            throw e;
+        }
 
         // Validate using the CVS.
 
@@ -213,18 +227,16 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
 
         final Mono<CvsOutputDTO> svrlXml = noticeValidationService.validateNoticeXmlUsingCvs(noticeXmlText,
                         eformsSdkVersion, svrlLangA2, validationMode)
+                // La risposta arriva sull'event loop: lettura del report e legenda (traduzioni, caricate
+                // su richiesta) su uno scheduler bloccante
+                .publishOn(Schedulers.boundedElastic())
                 .flatMap(s -> xmlParserService.parseXmlCvsValidation(s, sdkVersion, langCode))
-                .handle((cvsOutputDTO, sink) -> {
+                .map(cvsOutputDTO -> {
                     // Aggiunge l'XML nel caso in cui non ci siano failed asserts
                     if (cvsOutputDTO.getTotalFailedAsserts() == 0) {
-                        try {
-                            cvsOutputDTO.setXml(this.saveNoticeAsXml(noticeJson, timezone));
-                        } catch (Exception e) {
-                            sink.error(e);
-                            return;
-                        }
+                        cvsOutputDTO.setXml(noticeXmlText);
                     }
-                    sink.next(cvsOutputDTO);
+                    return cvsOutputDTO;
                 });
 
         return svrlXml;
@@ -237,21 +249,22 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
      * @param noticeJson The notice as JSON as built by the front-end form.
      */
     @Override
-    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeAndRender(String noticeJson, TimeZone timezone) throws Exception {
-        Validate.notBlank(noticeJson, "noticeJson is blank");
+    public Mono<ResponseEntity<Flux<DataBuffer>>> saveNoticeAndRender(final ObjectNode noticeJson, final TimeZone timezone) throws Exception {
+        Validate.notNull(noticeJson, "noticeJson is null");
 
         final PhysicalModel physicalModel =
                 buildPhysicalModel(noticeJson, debug, skipIfNoValue, sortXmlElements, timezone);
 
-        // Transform physical model to XML.
-        final String noticeXmlText = physicalModel.toXmlText(true);
+        // Transform physical model to XML, directly as bytes.
+        final byte[] noticeXml = physicalModel.toXmlBytes(true);
 
         // Could pass the language of the UI.
         final Optional<String> language = Optional.of("it");
 
-        log.debug("OUTPUT {}", noticeXmlText);
+        if (log.isDebugEnabled())
+            log.debug("OUTPUT {}", new String(noticeXml, StandardCharsets.UTF_8));
 
-        return noticeRenderService.renderNoticeXml(noticeXmlText, language)
+        return noticeRenderService.renderNoticeXml(noticeXml, language)
                 .collectList()
                 .map(dataBufferList -> {
                     // Gestisce la response come un flusso
@@ -264,6 +277,64 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
                 });
     }
 
+    /**
+     * Costruisce il physical model tracciando nell'MDC il json visuale.
+     *
+     * @param noticeJson The notice as JSON as built by the front-end form.
+     * @param timezone   The timezone
+     */
+    private PhysicalModel buildPhysicalModelTraced(final ObjectNode noticeJson, final TimeZone timezone)
+            throws Exception {
+        // Traccio nell'MDC il json visuale
+        try {
+            String tracciatoLog = LoggingUtils.getZippedLoggingString(noticeJson);
+            MDC.put(MDC_VISUAL_MODEL, tracciatoLog);
+        } catch (Exception e) {
+            log.error("Errore durante il salvataggio del tracciato visuale nell'MDC");
+        }
+
+        return buildPhysicalModel(noticeJson, debug, skipIfNoValue, sortXmlElements, timezone);
+    }
+
+    /**
+     * Trasforma il physical model in XML tracciandolo nell'MDC.
+     *
+     * @param physicalModel The physical model of the notice
+     */
+    private static String toXmlTextTraced(final PhysicalModel physicalModel) {
+        final String noticeXmlText = physicalModel.toXmlText(true);
+
+        // Traccio nell'MDC l'XML
+        try {
+            if (StringUtils.isNotBlank(noticeXmlText)) {
+                String tracciatoLog = LoggingUtils.getZippedLoggingString(noticeXmlText);
+                MDC.put(MDC_PHYSICAL_MODEL, tracciatoLog);
+            }
+        } catch (Exception e) {
+            log.error("Errore durante il salvataggio dell'XML nell'MDC");
+        }
+
+        return noticeXmlText;
+    }
+
+    /**
+     * Validazione XSD dell'XML gia' generato dal physical model.
+     *
+     * @param physicalModel The physical model of the notice
+     * @param noticeXmlText The XML of the physical model
+     */
+    private JsonNode validateUsingXsd(final PhysicalModel physicalModel, final String noticeXmlText)
+            throws Exception {
+        // Validate it using XSD.
+        final Optional<Path> mainXsdPathOpt = physicalModel.getMainXsdPathOpt();
+
+        final ObjectNode xsdReport = noticeValidationService.validateNoticeUsingXsd(
+                physicalModel.getNoticeId(), physicalModel.getSdkVersion(), noticeXmlText, mainXsdPathOpt);
+
+        // Il report e' gia' un albero JSON, non serve serializzarlo e rileggerlo
+        return xsdReport;
+    }
+
     /**
      * Goes from the visual model to the physical model of a notice. The conceptual model is a hidden
      * intermediary step.
@@ -285,12 +356,13 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
         Validate.notNull(visualRoot);
         Validate.notNull(noticeUuid);
 
-        final FieldsAndNodes sdkFieldsAndNodes = readSdkFieldsAndNodes(sdkVersion);
-        final VisualModel visualModel = new VisualModel(visualRoot, skipIfNoValue, applicationConfiguration);
+        // Metadati SDK condivisi, caricati una sola volta per versione
+        final SdkMetadata sdkMetadata = sdkMetadataRegistry.getSdkMetadata(sdkVersion);
+        final FieldsAndNodes sdkFieldsAndNodes = sdkMetadata.getFieldsAndNodes();
+        final VisualModel visualModel = new VisualModel(visualRoot, skipIfNoValue, exclusionRules);
 
-        final JsonNode noticeTypesJson = sdkService.readNoticeTypesJson(sdkVersion);
-        final Map<String, JsonNode> noticeInfoBySubtype = loadSdkNoticeTypeInfo(noticeTypesJson);
-        final Map<String, JsonNode> documentInfoByType = parseDocumentTypes(noticeTypesJson);
+        final Map<String, JsonNode> noticeInfoBySubtype = sdkMetadata.getNoticeInfoBySubtype();
+        final Map<String, JsonNode> documentInfoByType = sdkMetadata.getDocumentInfoByType();
 
         // Go from visual model to conceptual model.
         final ConceptualModel conceptModel =
@@ -300,38 +372,11 @@ public class XmlWriteServiceImpl extends BaseService implements XmlWriteService
         final boolean buildFields = true;
         return PhysicalModel.buildPhysicalModel(conceptModel,
                 sdkFieldsAndNodes, noticeInfoBySubtype, documentInfoByType, debug, buildFields,
-                eformsSdkDir, sortXml);
-    }
-
-    private static Map<String, JsonNode> loadSdkNoticeTypeInfo(
-            final JsonNode noticeTypesJson) {
-        final Map<String, JsonNode> noticeInfoBySubtype = new HashMap<>(512);
-        // TODO add "noticeSubTypes" to the SDK constants.
-        // SdkResource.NOTICE_SUB_TYPES
-        final JsonNode noticeSubTypes = noticeTypesJson.get("noticeSubTypes");
-        for (final JsonNode item : noticeSubTypes) {
-            // TODO add "subTypeId" to the SDK constants.
-            final String subTypeId = JsonUtils.getTextStrict(item, "subTypeId");
-            noticeInfoBySubtype.put(subTypeId, item);
-        }
-        return noticeInfoBySubtype;
+                eformsSdkDir, sortXml, xpathExpressionCache, sdkMetadata.getXmlSortOrder());
     }
 
     public FieldsAndNodes readSdkFieldsAndNodes(final SdkVersion sdkVersion) {
-        final JsonNode fieldsJson = sdkService.readSdkFieldsJson(sdkVersion);
-        return new FieldsAndNodes(fieldsJson, sdkVersion);
-    }
-
-    public static Map<String, JsonNode> parseDocumentTypes(final JsonNode noticeTypesJson) {
-        final Map<String, JsonNode> documentInfoByType = new HashMap<>();
-        final JsonNode documentTypes =
-                noticeTypesJson.get(SdkConstants.NOTICE_TYPES_JSON_DOCUMENT_TYPES_KEY);
-        for (final JsonNode item : documentTypes) {
-            // TODO add document type "id" to the SDK constants. Maybe DOCUMENT_TYPE_ID.
-            final String id = JsonUtils.getTextStrict(item, "id");
-            documentInfoByType.put(id, item);
-        }
-        return documentInfoByType;
+        return sdkMetadataRegistry.getSdkMetadata(sdkVersion).getFieldsAndNodes();
     }
 
     /**
@@ -1,23 +1,16 @@
 package it.appaltiecontratti.meforms.sorting;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import eu.europa.ted.eforms.sdk.SdkVersion;
 import it.appaltiecontratti.meforms.helpers.VersionHelper;
 import it.appaltiecontratti.meforms.helpers.notice.DocumentTypeInfo;
-import it.appaltiecontratti.meforms.helpers.notice.FieldsAndNodes;
 import it.appaltiecontratti.meforms.helpers.notice.PhysicalModel;
-import it.appaltiecontratti.meforms.util.JsonUtils;
 import it.appaltiecontratti.meforms.util.XmlUtils;
-import it.appaltiecontratti.meforms.util.XpathUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.Validate;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
-import org.xml.sax.SAXException;
 
-import javax.xml.xpath.XPath;
-import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
 
@@ -36,32 +29,26 @@ import java.util.*;
 public class NoticeXmlTagSorter {
     private final DocumentTypeInfo docTypeInfo;
     private final Path sdkFolder;
-    private final XPath xpathInst;
-    private final FieldsAndNodes fieldsAndNodes;
+    private final SdkXmlSortOrder sdkXmlSortOrder;
 
     /**
      * The instance is reusable but specific to a given SDK version.
      *
-     * @param xpathInst Reusable xpath preconfigured instance
+     * @param sdkXmlSortOrder The child sort order by element name, precomputed for the SDK version
      * @param docTypeInfo SDK document type info
      * @param sdkFolder The folder of the downloaded SDK
-     * @param fieldsAndNodes The SDK fields and nodes metadata (including sort order)
      */
-    public NoticeXmlTagSorter(final XPath xpathInst,
-                              final DocumentTypeInfo docTypeInfo, final Path sdkFolder,
-                              final FieldsAndNodes fieldsAndNodes) {
+    public NoticeXmlTagSorter(final SdkXmlSortOrder sdkXmlSortOrder,
+                              final DocumentTypeInfo docTypeInfo, final Path sdkFolder) {
 
-        Validate.notNull(xpathInst);
+        Validate.notNull(sdkXmlSortOrder);
         Validate.notNull(docTypeInfo);
         Validate.notNull(sdkFolder);
-        Validate.notNull(fieldsAndNodes);
 
         // SDK specific.
         this.docTypeInfo = docTypeInfo;
-        this.xpathInst = xpathInst;
+        this.sdkXmlSortOrder = sdkXmlSortOrder;
         this.sdkFolder = sdkFolder;
-
-        this.fieldsAndNodes = fieldsAndNodes;
     }
 
     /**
@@ -69,11 +56,8 @@ public class NoticeXmlTagSorter {
      * the notice.
      *
      * @param doc A notice XML as a W3C DOM.
-     *
-     * @throws SAXException If any parse error occurs.
-     * @throws IOException If any IO error occurs.
      */
-    public void sortXml(final Document doc) throws SAXException, IOException {
+    public void sortXml(final Document doc) {
         sortXml(doc.getDocumentElement());
     }
 
@@ -82,10 +66,8 @@ public class NoticeXmlTagSorter {
      * notice.
      *
      * @param xmlRoot The xml root element is the entry point
-     * @throws SAXException If any parse error occurs.
-     * @throws IOException If any IO error occurs.
      */
-    public void sortXml(final Element xmlRoot) throws SAXException, IOException {
+    public void sortXml(final Element xmlRoot) {
 
         final String cbcCustomizationId = PhysicalModel.CBC_CUSTOMIZATION_ID;
         // Compare sdkVersion of the element to the SDK version of this instance.
@@ -102,7 +84,8 @@ public class NoticeXmlTagSorter {
         final SdkVersion sdkVersionOfNotice =
                 VersionHelper.parsePrefixedSdkVersion(sdkVersionOfNoticeStr);
         final SdkVersion sdkVersionOfSorter = getSorterSdkVersion();
-        if (!VersionHelper.equalsVersionWithoutPatch(sdkVersionOfSorter, sdkVersionOfNotice)) {
+        if (!VersionHelper.equalsVersionWithoutPatch(sdkVersionOfSorter, sdkVersionOfNotice)
+                || !VersionHelper.equalsVersionWithoutPatch(sdkXmlSortOrder.getSdkVersion(), sdkVersionOfNotice)) {
             throw new RuntimeException(
                     String.format("Incompatible version: sorterInstance=%s, noticeToSort=%s",
                             sdkVersionOfSorter, sdkVersionOfNotice));
@@ -112,218 +95,96 @@ public class NoticeXmlTagSorter {
                 xmlRoot.getTagName());
         log.info("XML uri={}", xmlRoot.getOwnerDocument().getBaseURI());
 
-        // Start from root node.
-        final JsonNode rootNode = this.fieldsAndNodes.getRootNode();
-
-        final Map<String, List<JsonNode>> fieldOrNodeByParentNodeId =
-                fieldsAndNodes.buildMapOfFieldOrNodeByParentNodeId();
-
-        //
-        // HOW TO HANDLE SUCH A SPECIAL CASE.
-        //
-        // {
-        // "id" : "ND-SubcontractedActivity",
-        // "parentId" : "ND-LotTender",
-        // "xpathRelative" : "efac:SubcontractingTerm",
-        // }, {
-        // "id" : "ND-SubcontractedContract",
-        // "parentId" : "ND-LotTender",
-        // "xpathRelative" : "efac:SubcontractingTerm[efbc:TermCode/@listName='applicability']",
-        // }
-        // This is problematic for my algorithm, two nodes lead to the same xml element
-        // The predicate in the parent element is about the child item ...
-        //
-        final List<JsonNode> listSubcontractedActivity =
-                fieldOrNodeByParentNodeId.get("ND-SubcontractedActivity");
-        if (listSubcontractedActivity != null) {
-            final List<JsonNode> listSubcontractedContract =
-                    fieldOrNodeByParentNodeId.get("ND-SubcontractedContract");
-            if (listSubcontractedContract != null) {
-                // The context of ND-SubcontractedActivity is broader than for ND-SubcontractedContract.
-                // We want to group them.
-                listSubcontractedActivity.addAll(listSubcontractedContract);
-                listSubcontractedContract.clear();
-            }
-        }
-
-        // Those can be of interest in case the sort order differs.
-        logSpecialCases(fieldOrNodeByParentNodeId);
-
-        sortRecursive(xmlRoot, rootNode, fieldOrNodeByParentNodeId);
+        // Single bottom-up traversal, the order of the children only depends on the element name.
+        sortRecursive(xmlRoot, SdkXmlSortOrder.ROOT_KEY);
         // NOTE: we do not normalize the document, this can be done later if desired.
     }
 
-    private void logSpecialCases(final Map<String, List<JsonNode>> fieldOrNodeByParentNodeId) {
-        final Map<String, JsonNode> map = new HashMap<>();
-        for (final Map.Entry<String, List<JsonNode>> entry : fieldOrNodeByParentNodeId.entrySet()) {
-            final String nodeId = entry.getKey();
-            if (nodeId.equals(FieldsAndNodes.ND_ROOT)) {
-                continue;
-            }
-            final JsonNode node = fieldsAndNodes.getNodeById(nodeId);
-            final String parentNodeId = JsonUtils.getTextStrict(node, FieldsAndNodes.NODE_PARENT_NODE_ID);
-
-            final String xpathRel = JsonUtils.getTextStrict(node, FieldsAndNodes.XPATH_RELATIVE);
-            final List<String> xpathList =
-                    Arrays.asList(XpathUtils.getXpathPartsWithoutPredicates(xpathRel));
-            final String xpathRelWithoutPredicate = xpathList.get(0);
-            if (map.containsKey(xpathRelWithoutPredicate)) {
-                final JsonNode nodeOther = map.get(xpathRelWithoutPredicate);
-
-                final String nodeIdOther =
-                        JsonUtils.getTextStrict(nodeOther, FieldsAndNodes.FIELD_OR_NODE_ID_KEY);
-
-                final String parentNodeIdOther =
-                        JsonUtils.getTextStrict(nodeOther, FieldsAndNodes.NODE_PARENT_NODE_ID);
-
-                final String otherXpathRel =
-                        JsonUtils.getTextStrict(nodeOther, FieldsAndNodes.XPATH_RELATIVE);
-
-                if (parentNodeId.equals(parentNodeIdOther) && !nodeId.equals(nodeIdOther)
-                        && (otherXpathRel.startsWith(xpathRel) || xpathRel.startsWith(otherXpathRel))) {
-                    // This can happen when only the predicate differs.
-                    log.debug("{} has same element as other nodeId={}", nodeId, nodeIdOther);
-
-                    // In that case we expect the sort order to be the same!
-
-                    final List<JsonNode> nodeList =
-                            JsonUtils.getList(node.get(FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY));
-
-                    final List<JsonNode> nodeOtherList =
-                            JsonUtils.getList(nodeOther.get(FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY));
-
-                    if (!nodeList.equals(nodeOtherList)) {
-                        log.warn(
-                                "Sort order differs for nodeId1={}, nodeId2={}, but they have the same element",
-                                nodeId, nodeIdOther);
-                    }
-                }
+    /**
+     * Sorts the children of the passed element after sorting their own children.
+     *
+     * @param xmlElem The XML element to sort (physical model), children of this element will be sorted
+     * @param orderKey The key of the element in the sort order table, the tag name or the root key
+     */
+    private void sortRecursive(final Element xmlElem, final String orderKey) {
+        for (Node child = xmlElem.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                final Element childElem = (Element) child;
+                sortRecursive(childElem, childElem.getTagName());
             }
+        }
 
-            map.put(xpathRelWithoutPredicate, node);
+        final Map<String, Integer> childRank = sdkXmlSortOrder.getChildRank(orderKey);
+        if (childRank != null) {
+            sortChildren(xmlElem, childRank);
         }
     }
 
     /**
-     * @param xmlRootElem The XML root element to sort (physical model), children of this element will
-     *        be sorted
-     * @param fieldOrNode Field or node (conceptual model), initially the root node
-     * @param fieldOrNodeByParentNodeId List of fields or nodes by parent node id
+     * Reorders the children of the element: children without a known position keep their place at the
+     * start, the others follow in the xsd sequence order. Elements with the same position keep their
+     * relative order.
+     *
+     * @param xmlElem The element whose children are sorted
+     * @param childRank The position of each child element by name
      */
-    public void sortRecursive(final Element xmlRootElem, final JsonNode fieldOrNode,
-                              final Map<String, List<JsonNode>> fieldOrNodeByParentNodeId) {
-        Validate.notNull(xmlRootElem);
-        Validate.notNull(fieldOrNode);
-
-        final String id = JsonUtils.getTextStrict(fieldOrNode, FieldsAndNodes.FIELD_OR_NODE_ID_KEY);
-        final String xpathAbsolute =
-                JsonUtils.getTextStrict(fieldOrNode, FieldsAndNodes.XPATH_ABSOLUTE);
-
-        // All the fields or nodes found under the same parent.
-        // Example:
-        // id = "ND-BusinessParty" but in the XML it is "cac:BusinessParty"
-        // We want the XML child elements of "cac:BusinessParty" in the correct xsd sequence order.
-        final List<JsonNode> childItems = fieldOrNodeByParentNodeId.get(id);
-        if (childItems == null) {
-            return; // Nothing to sort.
-        }
-        log.debug("Sorting children of id={}", id);
-
-        // Get sort order of child items for the current node id.
-        final List<OrderItem> orderItemsForParent = new ArrayList<>(childItems.size());
-        for (final JsonNode childItem : childItems) {
-
-            final String fieldOrNodeId =
-                    JsonUtils.getTextStrict(childItem, FieldsAndNodes.FIELD_OR_NODE_ID_KEY);
-            log.debug("Found child fieldOrNodeId={}", fieldOrNodeId);
-
-            final String xpathRel = JsonUtils.getTextStrict(childItem, FieldsAndNodes.XPATH_RELATIVE);
-            final List<String> xpathRelParts = XpathUtils.getXpathParts(xpathRel);
-            Validate.notEmpty(xpathRelParts);
-
-            final List<JsonNode> list =
-                    JsonUtils.getList(childItem.get(FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY));
-
-            // The sort order is always missing for the root node.
-            // It can also be missing in SDK 1.7 but not in SDK 1.8.
-            if (!list.isEmpty()) {
-                final JsonNode firstItemInOrder = list.get(0);
-                final String key = firstItemInOrder.fieldNames().next();
-                // final String keyWithPredicate = xpathRelFirst;
-                final int order = firstItemInOrder.get(key).asInt();
-                final OrderItem orderItem = new OrderItem(fieldOrNodeId, key, order);
-                orderItemsForParent.add(orderItem);
+    private static void sortChildren(final Element xmlElem, final Map<String, Integer> childRank) {
+        final List<SortUnit> unranked = new ArrayList<>();
+        final List<SortUnit> ranked = new ArrayList<>();
+
+        // PRESERVE POSITION OF COMMENTS OR XML TEXTS NODES (formatting...).
+        // Comments or text nodes above an element move with it.
+        List<Node> commentsOrTextsAbove = new ArrayList<>();
+        boolean alreadySorted = true;
+        int lastRank = -1;
+        for (Node child = xmlElem.getFirstChild(); child != null; child = child.getNextSibling()) {
+            final short nodeType = child.getNodeType();
+            if (nodeType == Node.TEXT_NODE || nodeType == Node.COMMENT_NODE) {
+                commentsOrTextsAbove.add(child);
+                continue;
+            }
+            final Integer rank = nodeType == Node.ELEMENT_NODE ? childRank.get(child.getNodeName()) : null;
+            final SortUnit unit = new SortUnit(commentsOrTextsAbove, child, rank == null ? -1 : rank);
+            commentsOrTextsAbove = new ArrayList<>();
+            if (rank == null) {
+                unranked.add(unit);
+                alreadySorted &= ranked.isEmpty();
             } else {
-                log.warn("parentId={}, itemId={} has no {}", id, fieldOrNodeId,
-                        FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY);
-                // Ideally we want this to throw, but some tests are using dummy data that is missing the
-                // sort order and the tests are not about the order.
-                // throw new RuntimeException(
-                // String.format("%s is not supported in used SDK version! fieldOrNodeId=%s",
-                // FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY, id));
+                ranked.add(unit);
+                alreadySorted &= rank >= lastRank;
+                lastRank = rank;
             }
         }
-        // The order items are not ordered yet, they contain the order, and we naturally sort on it.
-        Collections.sort(orderItemsForParent); // Relies on implementation of "Comparable".
-        log.debug("orderItemsForParent=" + orderItemsForParent);
-
-        //
-        // Find parent elements in the XML.
-        //
-        final List<Element> xmlParentElements =
-                XmlUtils.evaluateXpathAsElemList(xpathInst, xmlRootElem, xpathAbsolute, xpathAbsolute);
-
-        for (final Element xmlParentElement : xmlParentElements) {
-
-            // Find child elements relative to the parent context.
-            final Element xpathContext = xmlParentElement;
-
-            for (final OrderItem orderItem : orderItemsForParent) {
-
-                // We still need to parse the relative xpath.
-                final String xpathExpr = orderItem.getXmlName();
-
-                // TODO split xpath relative of children "/abc[xyz]"
-                // order only provides "abc"
-                // map index to order
-
-                final List<Element> foundChildElements =
-                        XmlUtils.evaluateXpathAsElemList(xpathInst, xpathContext, xpathExpr, xpathExpr);
+        if (alreadySorted) {
+            return; // Nothing to move.
+        }
 
-                // Reorder XML elements.
-                // Also note that XML attributes have no order.
-                for (final Element foundChildElement : foundChildElements) {
+        ranked.sort(Comparator.comparingInt(SortUnit::rank)); // Stable sort.
 
-                    // PRESERVE POSITION OF COMMENTS OR XML TEXTS NODES (formatting...).
-                    // Find comments or text nodes above the element.
-                    final List<Node> commentsOrTextsAbove = new ArrayList<>();
-                    Node previousSibling = foundChildElement.getPreviousSibling();
-                    while (previousSibling != null) {
-                        if (previousSibling.getNodeType() == Node.TEXT_NODE) {
-                            commentsOrTextsAbove.add(previousSibling);
-                        } else if (previousSibling.getNodeType() == Node.COMMENT_NODE) {
-                            commentsOrTextsAbove.add(previousSibling);
-                        } else {
-                            break;
-                        }
-                        previousSibling = previousSibling.getPreviousSibling();
-                    }
-                    Collections.reverse(commentsOrTextsAbove); // To keep the original order.
+        // This sorts the xml elements by removing them and appending them back.
+        for (final SortUnit unit : unranked) {
+            unit.removeAndAppend(xmlElem);
+        }
+        // Trailing comments or texts stay after the elements that are not sorted.
+        for (final Node commentOrText : commentsOrTextsAbove) {
+            removeAndAppend(xmlElem, commentOrText);
+        }
+        for (final SortUnit unit : ranked) {
+            unit.removeAndAppend(xmlElem);
+        }
+    }
 
-                    // First add back the XML comments.
-                    for (final Node commentOrTextAbove : commentsOrTextsAbove) {
-                        removeAndAppend(xpathContext, commentOrTextAbove);
-                    }
+    /**
+     * A child node with the comments or texts found above it.
+     */
+    private record SortUnit(List<Node> commentsOrTextsAbove, Node node, int rank) {
 
-                    // This sorts the xml elements by removing them and appending them back.
-                    removeAndAppend(xpathContext, foundChildElement);
-                }
+        void removeAndAppend(final Element elemParent) {
+            // First add back the XML comments.
+            for (final Node commentOrTextAbove : commentsOrTextsAbove) {
+                NoticeXmlTagSorter.removeAndAppend(elemParent, commentOrTextAbove);
             }
-        }
-
-        // Continue on child items in the field and node hierarchy.
-        for (final JsonNode childItem : childItems) {
-            sortRecursive(xmlRootElem, childItem, fieldOrNodeByParentNodeId);
+            NoticeXmlTagSorter.removeAndAppend(elemParent, node);
         }
     }
 
@@ -0,0 +1,192 @@
+package it.appaltiecontratti.meforms.sorting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import eu.europa.ted.eforms.sdk.SdkVersion;
+import it.appaltiecontratti.meforms.helpers.notice.FieldsAndNodes;
+import it.appaltiecontratti.meforms.util.JsonUtils;
+import it.appaltiecontratti.meforms.util.XpathUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+
+import java.util.*;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Tabella dell'ordinamento dei figli per nome di elemento XML, calcolata una sola volta per versione
+ * SDK a partire dal "xsdSequenceOrder" di fields.json. Per ogni elemento padre (es. "cac:BusinessParty")
+ * associa ad ogni elemento figlio (es. "cbc:EndpointID") la sua posizione nella sequenza XSD.
+ * </p>
+ *
+ * <p>
+ * Il nome dell'elemento padre e' l'ultimo passo, senza predicati, della "xpathAbsolute" del nodo SDK:
+ * i nodi che differiscono solo per il predicato (es. ND-SubcontractedActivity e ND-SubcontractedContract)
+ * condividono quindi la stessa tabella. L'elemento radice del notice usa la chiave {@link #ROOT_KEY}.
+ * </p>
+ *
+ * <p>
+ * L'istanza e' immutabile e condivisibile tra richieste.
+ * </p>
+ */
+@Slf4j
+public class SdkXmlSortOrder {
+
+    public static final String ROOT_KEY = "/*";
+
+    private final SdkVersion sdkVersion;
+
+    // Nome elemento padre -> nome elemento figlio -> posizione
+    private final Map<String, Map<String, Integer>> childRankByParentName;
+
+    /**
+     * @param fieldsAndNodes The SDK fields and nodes metadata (including sort order)
+     */
+    public SdkXmlSortOrder(final FieldsAndNodes fieldsAndNodes) {
+        Validate.notNull(fieldsAndNodes);
+        this.sdkVersion = fieldsAndNodes.getSdkVersion();
+
+        final Map<String, List<JsonNode>> fieldOrNodeByParentNodeId =
+                fieldsAndNodes.buildMapOfFieldOrNodeByParentNodeId();
+
+        // Those can be of interest in case the sort order differs.
+        logSpecialCases(fieldsAndNodes, fieldOrNodeByParentNodeId);
+
+        // Raggruppa per nome dell'elemento padre gli order item dei figli, nell'ordine di fields.json.
+        final Map<String, List<OrderItem>> orderItemsByParentName = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<JsonNode>> entry : fieldOrNodeByParentNodeId.entrySet()) {
+            final JsonNode parentNode = fieldsAndNodes.getNodeById(entry.getKey());
+            final String parentName = getElementName(
+                    JsonUtils.getTextStrict(parentNode, FieldsAndNodes.XPATH_ABSOLUTE));
+            final List<OrderItem> orderItems =
+                    orderItemsByParentName.computeIfAbsent(parentName, k -> new ArrayList<>());
+
+            for (final JsonNode childItem : entry.getValue()) {
+                final String fieldOrNodeId =
+                        JsonUtils.getTextStrict(childItem, FieldsAndNodes.FIELD_OR_NODE_ID_KEY);
+                final List<JsonNode> list =
+                        JsonUtils.getList(childItem.get(FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY));
+
+                // The sort order is always missing for the root node.
+                // It can also be missing in SDK 1.7 but not in SDK 1.8.
+                if (!list.isEmpty()) {
+                    final JsonNode firstItemInOrder = list.get(0);
+                    final String key = firstItemInOrder.fieldNames().next();
+                    final int order = firstItemInOrder.get(key).asInt();
+                    orderItems.add(new OrderItem(fieldOrNodeId, key, order));
+                } else {
+                    log.debug("parentId={}, itemId={} has no {}", entry.getKey(), fieldOrNodeId,
+                            FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY);
+                }
+            }
+        }
+
+        final Map<String, Map<String, Integer>> rankMap = new HashMap<>(orderItemsByParentName.size() * 2);
+        orderItemsByParentName.forEach((parentName, orderItems) -> {
+            if (!orderItems.isEmpty()) {
+                rankMap.put(parentName, buildChildRank(parentName, orderItems));
+            }
+        });
+        this.childRankByParentName = Collections.unmodifiableMap(rankMap);
+
+        log.info("Built XML sort order for sdk: {}, parent elements: {}", sdkVersion,
+                childRankByParentName.size());
+    }
+
+    public SdkVersion getSdkVersion() {
+        return sdkVersion;
+    }
+
+    /**
+     * @param parentName Il nome dell'elemento padre, {@link #ROOT_KEY} per la radice
+     * @return La posizione di ogni elemento figlio, null se l'elemento non ha figli da ordinare
+     */
+    public Map<String, Integer> getChildRank(final String parentName) {
+        return childRankByParentName.get(parentName);
+    }
+
+    private static Map<String, Integer> buildChildRank(final String parentName,
+                                                       final List<OrderItem> orderItems) {
+        // Ordinamento stabile: a parita' di ordine vale la posizione in fields.json.
+        Collections.sort(orderItems); // Relies on implementation of "Comparable".
+
+        final Map<String, Integer> childOrder = new HashMap<>();
+        final Map<String, Integer> childRank = new LinkedHashMap<>();
+        for (final OrderItem orderItem : orderItems) {
+            final Integer previousOrder = childOrder.putIfAbsent(orderItem.getXmlName(), orderItem.getOrder());
+            if (previousOrder == null) {
+                childRank.put(orderItem.getXmlName(), childRank.size());
+            } else if (!previousOrder.equals(orderItem.getOrder())) {
+                log.debug("Sort order differs for element={} in parent={}: {} and {}, keeping {}",
+                        orderItem.getXmlName(), parentName, previousOrder, orderItem.getOrder(), previousOrder);
+            }
+        }
+        return Collections.unmodifiableMap(childRank);
+    }
+
+    /**
+     * @param xpathAbsolute The absolute xpath of a node, example "/*&#47;cac:ProcurementProject"
+     * @return The name of the last element without predicates, {@link #ROOT_KEY} for the root
+     */
+    static String getElementName(final String xpathAbsolute) {
+        if (ROOT_KEY.equals(xpathAbsolute)) {
+            return ROOT_KEY;
+        }
+        Validate.isTrue(xpathAbsolute.startsWith(ROOT_KEY + "/"), "Unexpected xpathAbsolute=%s", xpathAbsolute);
+        final String[] parts = XpathUtils.getXpathPartsWithoutPredicates(xpathAbsolute.substring(1));
+        return parts[parts.length - 1];
+    }
+
+    private static void logSpecialCases(final FieldsAndNodes fieldsAndNodes,
+                                        final Map<String, List<JsonNode>> fieldOrNodeByParentNodeId) {
+        final Map<String, JsonNode> map = new HashMap<>();
+        for (final Map.Entry<String, List<JsonNode>> entry : fieldOrNodeByParentNodeId.entrySet()) {
+            final String nodeId = entry.getKey();
+            if (nodeId.equals(FieldsAndNodes.ND_ROOT)) {
+                continue;
+            }
+            final JsonNode node = fieldsAndNodes.getNodeById(nodeId);
+            final String parentNodeId = JsonUtils.getTextStrict(node, FieldsAndNodes.NODE_PARENT_NODE_ID);
+
+            final String xpathRel = JsonUtils.getTextStrict(node, FieldsAndNodes.XPATH_RELATIVE);
+            final List<String> xpathList =
+                    Arrays.asList(XpathUtils.getXpathPartsWithoutPredicates(xpathRel));
+            final String xpathRelWithoutPredicate = xpathList.get(0);
+            if (map.containsKey(xpathRelWithoutPredicate)) {
+                final JsonNode nodeOther = map.get(xpathRelWithoutPredicate);
+
+                final String nodeIdOther =
+                        JsonUtils.getTextStrict(nodeOther, FieldsAndNodes.FIELD_OR_NODE_ID_KEY);
+
+                final String parentNodeIdOther =
+                        JsonUtils.getTextStrict(nodeOther, FieldsAndNodes.NODE_PARENT_NODE_ID);
+
+                final String otherXpathRel =
+                        JsonUtils.getTextStrict(nodeOther, FieldsAndNodes.XPATH_RELATIVE);
+
+                if (parentNodeId.equals(parentNodeIdOther) && !nodeId.equals(nodeIdOther)
+                        && (otherXpathRel.startsWith(xpathRel) || xpathRel.startsWith(otherXpathRel))) {
+                    // This can happen when only the predicate differs.
+                    log.debug("{} has same element as other nodeId={}", nodeId, nodeIdOther);
+
+                    // In that case we expect the sort order to be the same!
+
+                    final List<JsonNode> nodeList =
+                            JsonUtils.getList(node.get(FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY));
+
+                    final List<JsonNode> nodeOtherList =
+                            JsonUtils.getList(nodeOther.get(FieldsAndNodes.XSD_SEQUENCE_ORDER_KEY));
+
+                    if (!nodeList.equals(nodeOtherList)) {
+                        log.warn(
+                                "Sort order differs for nodeId1={}, nodeId2={}, but they have the same element",
+                                nodeId, nodeIdOther);
+                    }
+                }
+            }
+
+            map.put(xpathRelWithoutPredicate, node);
+        }
+    }
+}
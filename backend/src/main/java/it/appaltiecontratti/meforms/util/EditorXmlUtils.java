@@ -3,14 +3,6 @@ package it.appaltiecontratti.meforms.util;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
-
 /**
  * @author Cristiano Perin <cristiano.perin@akera.it>
  * @version 1.0.0
@@ -28,33 +20,8 @@ public class EditorXmlUtils {
      *
      * @return The XML as text
      */
-    @SuppressWarnings("java:S2755")
     public static String asText(final Document doc, final boolean indented) {
-        try {
-            final StringWriter stringWriter = new StringWriter();
-            final TransformerFactory factory = TransformerFactory.newInstance();
-            final Transformer transformer = factory.newTransformer();
-
-            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.toString());
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-
-            if (indented) {
-                // NOTE: indentation and the text may vary by implementation (pure JDK, Saxon HE, ...)
-                transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            }
-
-            transformer.setURIResolver(null); // Do not resolve URIs.
-
-            // final DOMSource domSource = new DOMSource(doc); // Also works but shows a warning.
-            final DOMSource domSource = new DOMSource(doc.getDocumentElement());
-
-            transformer.transform(domSource, new StreamResult(stringWriter));
-
-            return stringWriter.toString();
-        } catch (Exception ex) {
-            throw new RuntimeException("Error converting to String", ex);
-        }
+        return XmlSerializer.asText(doc, indented);
     }
 
     public static String getNodePath(final Node node) {
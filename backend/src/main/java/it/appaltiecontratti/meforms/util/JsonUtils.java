@@ -4,9 +4,12 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.Validate;
 
@@ -17,11 +20,49 @@ import java.util.*;
  */
 public class JsonUtils {
 
+    /**
+     * Shared mapper, built once: the modules lookup on the classpath is expensive. It is thread-safe
+     * but it must not be reconfigured after construction, derive readers and writers from it instead.
+     */
+    private static final ObjectMapper STANDARD_MAPPER = buildStandardJacksonObjectMapper();
+
+    private static final ObjectReader JSON_NODE_READER = STANDARD_MAPPER.readerFor(JsonNode.class);
+    private static final ObjectWriter PRETTY_WRITER = STANDARD_MAPPER.writerWithDefaultPrettyPrinter();
+    private static final JsonNodeFactory NODE_FACTORY = STANDARD_MAPPER.getNodeFactory();
+
     private JsonUtils() {
         throw new UnsupportedOperationException("The class is a utility class!");
     }
 
+    /**
+     * @return The shared standard mapper, do not reconfigure it
+     */
     public static ObjectMapper getStandardJacksonObjectMapper() {
+        return STANDARD_MAPPER;
+    }
+
+    /**
+     * @return Reader of JSON trees, immutable and thread-safe
+     */
+    public static ObjectReader getJsonNodeReader() {
+        return JSON_NODE_READER;
+    }
+
+    /**
+     * @return Writer with the default pretty printer, immutable and thread-safe
+     */
+    public static ObjectWriter getPrettyWriter() {
+        return PRETTY_WRITER;
+    }
+
+    /**
+     * @return The node factory of the standard mapper, for building JSON trees
+     */
+    public static JsonNodeFactory getNodeFactory() {
+        return NODE_FACTORY;
+    }
+
+    private static ObjectMapper buildStandardJacksonObjectMapper() {
         return JsonMapper.builder()
                 .findAndAddModules()
                 // Value that indicates that only properties with non-null values are to be included.
@@ -34,11 +75,11 @@ public class JsonUtils {
     }
 
     public static ObjectNode createObjectNode() {
-        return getStandardJacksonObjectMapper().createObjectNode();
+        return NODE_FACTORY.objectNode();
     }
 
     public static ArrayNode createArrayNode() {
-        return getStandardJacksonObjectMapper().createArrayNode();
+        return NODE_FACTORY.arrayNode();
     }
 
     public static ArrayNode createArrayNode(final ObjectNode objectNode, final String key) {
@@ -1,9 +1,11 @@
 package it.appaltiecontratti.meforms.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.zip.GZIPOutputStream;
@@ -26,6 +28,22 @@ public class LoggingUtils {
         }
     }
 
+    /**
+     * Il json viene serializzato direttamente nello stream compresso, senza passare da una String.
+     */
+    public static String getZippedLoggingString(final JsonNode data) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (OutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+                JsonUtils.getStandardJacksonObjectMapper().writeValue(gzipOutputStream, data);
+            }
+            return Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray());
+        } catch (Exception e) {
+            log.error("Errore durante lo zip del tracciato");
+            return String.valueOf(data);
+        }
+    }
+
     private static byte[] gzipString(final String data) throws IOException {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 /**
@@ -27,74 +28,100 @@ import java.util.*;
 @Component
 public class NoticeCleaner {
 
-    private Map<String, Set<String>> tpoMap;
-    private Map<String, Set<String>> uboMap;
-    private Map<String, Set<String>> tpaMap;
-    private Map<String, Set<String>> tenMap;
-    private Map<String, Set<String>> conMap;
+    /**
+     * Regole di pulizia, applicate nell'ordine in cui sono definite
+     */
+    private final List<CleanerRule> rules = new ArrayList<>();
 
     @Autowired
     private ResourceLoader resourceLoader;
 
+    /**
+     * Regola di pulizia: i gruppi "groupContentId" il cui campo "fieldContentId" contiene un valore non
+     * referenziato altrove e con tutti i campi "fieldsToCheck" vuoti vengono rimossi.
+     *
+     * @param name               Nome della regola (es. TPO), usato per il file di configurazione e nei log
+     * @param groupContentId     Id del gruppo da rimuovere
+     * @param fieldContentId     Id del campo contenente l'identificativo del gruppo
+     * @param fieldsBySubType    Campi da verificare per ogni notice sub type
+     */
+    private record CleanerRule(String name, String groupContentId, String fieldContentId,
+                               Map<String, Set<String>> fieldsBySubType) {
+    }
+
+    /**
+     * Gruppo trovato nel modello visuale durante l'indicizzazione
+     *
+     * @param node      Il gruppo
+     * @param parent    L'array "children" che contiene il gruppo
+     * @param parentRef Il gruppo indicizzato piu' vicino tra gli antenati, null se assente
+     */
+    private record GroupRef(JsonNode node, ArrayNode parent, GroupRef parentRef) {
+    }
+
     @PostConstruct
     private void loadResources() throws IOException {
+        // L'ordine delle regole corrisponde all'ordine di applicazione
+        loadRule("TPO", "GR-Touch-Point", "OPT-201-Organization-TouchPoint");
+        loadRule("UBO", "GR-UBO", "OPT-202-UBO");
+        loadRule("TPA", "GR-TenderingParty", "OPT-210-Tenderer");
+        loadRule("TEN", "GR-LotTender", "OPT-321-Tender");
+        loadRule("CON", "GR-SettledContract", "OPT-316-Contract");
+    }
+
+    private void loadRule(final String name, final String groupContentId, final String fieldContentId) throws IOException {
         TypeReference<Map<String, Set<String>>> mapType = new TypeReference<>() {
         };
         final ObjectMapper mapper = JsonUtils.getStandardJacksonObjectMapper();
 
-        // Load TPO
-        log.info("Loading Notice Cleaner TPO");
+        log.info("Loading Notice Cleaner {}", name);
         Resource r = resourceLoader.getResource(
-                "classpath:notice-cleaner/notice-cleaner-TPO.json");
-        tpoMap = mapper.readValue(r.getInputStream(), mapType);
-
-        // Load UBO
-        log.info("Loading Notice Cleaner UBO");
-        r = resourceLoader.getResource(
-                "classpath:notice-cleaner/notice-cleaner-UBO.json");
-        uboMap = mapper.readValue(r.getInputStream(), mapType);
-
-        // Load TPA
-        log.info("Loading Notice Cleaner TPA");
-        r = resourceLoader.getResource(
-                "classpath:notice-cleaner/notice-cleaner-TPA.json");
-        tpaMap = mapper.readValue(r.getInputStream(), mapType);
-
-        // Load TEN
-        log.info("Loading Notice Cleaner TEN");
-        r = resourceLoader.getResource(
-                "classpath:notice-cleaner/notice-cleaner-TEN.json");
-        tenMap = mapper.readValue(r.getInputStream(), mapType);
-
-        // Load CON
-        log.info("Loading Notice Cleaner CON");
-        r = resourceLoader.getResource(
-                "classpath:notice-cleaner/notice-cleaner-CON.json");
-        conMap = mapper.readValue(r.getInputStream(), mapType);
+                "classpath:notice-cleaner/notice-cleaner-" + name + ".json");
+        try (InputStream is = r.getInputStream()) {
+            rules.add(new CleanerRule(name, groupContentId, fieldContentId,
+                    Collections.unmodifiableMap(mapper.readValue(is, mapType))));
+        }
     }
 
     /**
-     * Metodo che esegue la pulizia del modello visuale (es. rimuove occorrenze id scheme non utilizzate)
+     * Metodo che esegue la pulizia del modello visuale gia' letto (es. rimuove occorrenze id scheme non
+     * utilizzate). L'albero viene modificato sul posto.
      *
-     * @param noticeJson Json del modello visuale
-     * @return La root del modello visuale come ObjectNode
-     * @throws Exception Eccezione in caso di errore di parsing Jackson
+     * @param visualRoot La root del modello visuale
+     * @return La root del modello visuale pulita
      */
-    public JsonNode cleanNotice(final String noticeJson) throws Exception {
+    public JsonNode cleanNotice(final ObjectNode visualRoot) {
 
         log.info("Execution start {}::cleanNotice", NoticeCleaner.class.getSimpleName());
 
         try {
-            final ObjectMapper mapper = JsonUtils.getStandardJacksonObjectMapper();
-            ObjectNode visualRoot = (ObjectNode) mapper.readTree(noticeJson);
-
             String noticeSubType = visualRoot.get("noticeSubType").asText();
 
-            visualRoot = findAndCleanTPO(visualRoot, noticeSubType);
-            visualRoot = findAndCleanUBO(visualRoot, noticeSubType);
-            visualRoot = findAndCleanTPA(visualRoot, noticeSubType);
-            visualRoot = findAndCleanTEN(visualRoot, noticeSubType);
-            visualRoot = findAndCleanCON(visualRoot, noticeSubType);
+            // Regole applicabili al notice sub type
+            final List<CleanerRule> applicableRules = rules.stream()
+                    .filter(rule -> rule.fieldsBySubType().get(noticeSubType) != null)
+                    .toList();
+
+            if (!applicableRules.isEmpty()) {
+                ObjectNode noticeData = (ObjectNode) visualRoot.get("children").get(1);
+
+                // Step 1: un'unica visita che conteggia le occorrenze di tutti gli attributi "value"
+                // e indicizza per contentId i gruppi interessati dalle regole
+                final Set<String> groupContentIds = new HashSet<>();
+                applicableRules.forEach(rule -> groupContentIds.add(rule.groupContentId()));
+
+                final Map<String, Integer> valueOccurrencies = new HashMap<>();
+                final Map<String, List<GroupRef>> groupsByContentId = new HashMap<>();
+                indexNotice(noticeData, null, groupContentIds, valueOccurrencies, groupsByContentId);
+
+                // Step 2: applica le regole in sequenza sugli indici
+                final Set<JsonNode> removedGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (CleanerRule rule : applicableRules) {
+                    applyRule(rule, rule.fieldsBySubType().get(noticeSubType),
+                            groupsByContentId.getOrDefault(rule.groupContentId(), List.of()),
+                            valueOccurrencies, removedGroups);
+                }
+            }
 
             log.debug("visualRoot {}", visualRoot);
 
@@ -107,242 +134,179 @@ public class NoticeCleaner {
     }
 
     /**
-     * Metodo che esegue la pulizia delle occorrenze dei touch points
+     * Metodo che in un'unica visita indicizza tutti gli attributi "value" in una mappa conteggiandone le
+     * occorrenze e raccoglie i gruppi con contentId tra quelli indicati
      *
-     * @param visualRoot Modello visuale ObjectNode
-     * @return ObjectNode aggiornato
+     * @param node               Nodo da navigare
+     * @param parentRef          Gruppo indicizzato piu' vicino tra gli antenati
+     * @param groupContentIds    Id dei gruppi da indicizzare
+     * @param valueOccurrences   Mappa delle occorrenze
+     * @param groupsByContentId  Gruppi indicizzati per contentId, in ordine di visita
      */
-    private ObjectNode findAndCleanTPO(final ObjectNode visualRoot, final String noticeSubType) {
-        // Check TPOs
-        String targetFieldContentId = "OPT-201-Organization-TouchPoint";
-        String targetGroupContentId = "GR-Touch-Point";
-
-        log.info("Execution start {}::findAndCleanTPO for group [ {} ] and field [ {} ]", NoticeCleaner.class.getSimpleName(), targetGroupContentId, targetFieldContentId);
-
-        ObjectNode noticeData = (ObjectNode) visualRoot.get("children").get(1);
-
-        // Step 1: Count occurrences of all "value" attributes
-        final Map<String, Integer> valueOccurrencies = new HashMap<>();
-        countValueOccurrences(noticeData, valueOccurrencies);
-
-        Set<String> fieldsToCheck = this.tpoMap.getOrDefault(noticeSubType, null);
-        if (fieldsToCheck != null) {
-            findAndRemoveGroupsWithoutOccurrencies(noticeData, targetGroupContentId, targetFieldContentId, valueOccurrencies, fieldsToCheck);
-            ((ArrayNode) visualRoot.get("children")).remove(1);
-            ((ArrayNode) visualRoot.get("children")).add(noticeData);
+    private void indexNotice(final JsonNode node, final GroupRef parentRef, final Set<String> groupContentIds,
+                             final Map<String, Integer> valueOccurrences, final Map<String, List<GroupRef>> groupsByContentId) {
+        if (node.has("value")) {
+            String value = node.get("value").asText();
+            valueOccurrences.merge(value, 1, Integer::sum);
         }
 
-        return visualRoot;
+        if (node.has("children") && node.get("children").isArray()) {
+            final ArrayNode children = (ArrayNode) node.get("children");
+            for (JsonNode child : children) {
+                GroupRef childParentRef = parentRef;
+                final String contentId = child.path("contentId").asText();
+                if (groupContentIds.contains(contentId)) {
+                    childParentRef = new GroupRef(child, children, parentRef);
+                    groupsByContentId.computeIfAbsent(contentId, k -> new ArrayList<>()).add(childParentRef);
+                }
+                indexNotice(child, childParentRef, groupContentIds, valueOccurrences, groupsByContentId);
+            }
+        }
     }
 
     /**
-     * Metodo che esegue la pulizia delle occorrenze dei beneficiari
+     * Metodo che applica una regola: per ogni gruppo cerca le occorrenze del campo (es TPO-XXXX) e, se non trova
+     * utilizzi, rimuove il gruppo/nodo genitore dalle organizzazioni.
+     * Tutte le condizioni vengono valutate prima di rimuovere i gruppi, dopodiche' le occorrenze vengono aggiornate
+     * sottraendo i valori dei gruppi rimossi.
      *
-     * @param visualRoot Modello visuale ObjectNode
-     * @return ObjectNode aggiornato
+     * @param rule              La regola da applicare
+     * @param fieldsToCheck     Insieme di campi da controllare per definire un gruppo "da eliminare"
+     * @param groups            I gruppi indicizzati per la regola
+     * @param valueOccurrencies Mappa delle occorrenze
+     * @param removedGroups     Gruppi gia' rimossi da regole precedenti, aggiornato come side effect
      */
-    private ObjectNode findAndCleanUBO(final ObjectNode visualRoot, final String noticeSubType) {
-        // Check UBOs
-        String targetFieldContentId = "OPT-202-UBO";
-        String targetGroupContentId = "GR-UBO";
-
-        log.info("Execution start {}::findAndCleanUBO for group [ {} ] and field [ {} ]", NoticeCleaner.class.getSimpleName(), targetGroupContentId, targetFieldContentId);
-
-        ObjectNode noticeData = (ObjectNode) visualRoot.get("children").get(1);
-
-        // Step 1: Count occurrences of all "value" attributes
-        final Map<String, Integer> valueOccurrencies = new HashMap<>();
-        countValueOccurrences(noticeData, valueOccurrencies);
+    private void applyRule(final CleanerRule rule, final Set<String> fieldsToCheck, final List<GroupRef> groups,
+                           final Map<String, Integer> valueOccurrencies, final Set<JsonNode> removedGroups) {
+        log.info("Execution start {}::applyRule {} for group [ {} ] and field [ {} ]", NoticeCleaner.class.getSimpleName(),
+                rule.name(), rule.groupContentId(), rule.fieldContentId());
+
+        final List<GroupRef> groupsToRemove = new ArrayList<>();
+        for (GroupRef groupRef : groups) {
+            if (!isDetached(groupRef, removedGroups)
+                    && isGroupWithoutOccurrencies(groupRef.node(), rule.fieldContentId(), valueOccurrencies, fieldsToCheck)) {
+                groupsToRemove.add(groupRef);
+            }
+        }
 
-        Set<String> fieldsToCheck = this.uboMap.getOrDefault(noticeSubType, null);
-        if (fieldsToCheck != null) {
-            findAndRemoveGroupsWithoutOccurrencies(noticeData, targetGroupContentId, targetFieldContentId, valueOccurrencies, fieldsToCheck);
-            ((ArrayNode) visualRoot.get("children")).remove(1);
-            ((ArrayNode) visualRoot.get("children")).add(noticeData);
+        if (groupsToRemove.isEmpty()) {
+            return;
         }
 
-        return visualRoot;
+        // Rimozione raggruppata per array genitore, una sola scansione per ciascun array
+        final Map<ArrayNode, Set<JsonNode>> nodesToRemoveByParent = new IdentityHashMap<>();
+        for (GroupRef groupRef : groupsToRemove) {
+            // I gruppi in ordine di visita: un gruppo contenuto in un altro gruppo rimosso e' gia' stato contato
+            if (isDetached(groupRef.parentRef(), removedGroups)) {
+                removedGroups.add(groupRef.node());
+                continue;
+            }
+            nodesToRemoveByParent
+                    .computeIfAbsent(groupRef.parent(), k -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                    .add(groupRef.node());
+            removedGroups.add(groupRef.node());
+            // Le occorrenze dei valori rimossi non contano piu' per le regole successive
+            decrementValueOccurrences(groupRef.node(), valueOccurrencies);
+        }
+        nodesToRemoveByParent.forEach((parent, nodesToRemove) -> {
+            // Ordine inverso per poter rimuovere correttamente i nodi dal json
+            for (int j = parent.size() - 1; j >= 0; j--) {
+                if (nodesToRemove.contains(parent.get(j))) {
+                    log.debug("Removing node at index [ {} ]", j);
+                    parent.remove(j);
+                }
+            }
+        });
     }
 
     /**
-     * Metodo che esegue la pulizia delle occorrenze dei TPA
-     *
-     * @param visualRoot Modello visuale ObjectNode
-     * @return ObjectNode aggiornato
+     * @return true se il gruppo o uno dei gruppi indicizzati che lo contengono e' gia' stato rimosso
      */
-    private ObjectNode findAndCleanTPA(final ObjectNode visualRoot, final String noticeSubType) {
-        // Check UBOs
-        String targetFieldContentId = "OPT-210-Tenderer";
-        String targetGroupContentId = "GR-TenderingParty";
-
-        log.info("Execution start {}::findAndCleanTPA for group [ {} ] and field [ {} ]", NoticeCleaner.class.getSimpleName(), targetGroupContentId, targetFieldContentId);
-
-        ObjectNode noticeData = (ObjectNode) visualRoot.get("children").get(1);
-
-        // Step 1: Count occurrences of all "value" attributes
-        final Map<String, Integer> valueOccurrencies = new HashMap<>();
-        countValueOccurrences(noticeData, valueOccurrencies);
-
-        Set<String> fieldsToCheck = this.tpaMap.getOrDefault(noticeSubType, null);
-        if (fieldsToCheck != null) {
-            findAndRemoveGroupsWithoutOccurrencies(noticeData, targetGroupContentId, targetFieldContentId, valueOccurrencies, fieldsToCheck);
-            ((ArrayNode) visualRoot.get("children")).remove(1);
-            ((ArrayNode) visualRoot.get("children")).add(noticeData);
+    private boolean isDetached(final GroupRef groupRef, final Set<JsonNode> removedGroups) {
+        for (GroupRef ref = groupRef; ref != null; ref = ref.parentRef()) {
+            if (removedGroups.contains(ref.node())) {
+                return true;
+            }
         }
-
-        return visualRoot;
+        return false;
     }
 
     /**
-     * Metodo che esegue la pulizia delle occorrenze dei TEN
+     * Metodo che verifica se il campo identificativo del gruppo (cercato tra i figli e, se assente, tra i figli dei
+     * figli) ha un valore senza altri utilizzi e se tutti i campi da controllare sono vuoti
      *
-     * @param visualRoot Modello visuale ObjectNode
-     * @return ObjectNode aggiornato
+     * @param group                Gruppo da analizzare
+     * @param targetFieldContentId Id del campo da trovare
+     * @param valueOccurrencies    Mappa delle occorrenze
+     * @param fieldsToCheck        Insieme di campi da controllare per definire un gruppo "da eliminare"
+     * @return true se il gruppo e' da rimuovere
      */
-    private ObjectNode findAndCleanTEN(final ObjectNode visualRoot, final String noticeSubType) {
-        // Check UBOs
-        String targetFieldContentId = "OPT-321-Tender";
-        String targetGroupContentId = "GR-LotTender";
-
-        log.info("Execution start {}::findAndCleanTEN for group [ {} ] and field [ {} ]", NoticeCleaner.class.getSimpleName(), targetGroupContentId, targetFieldContentId);
-
-        ObjectNode noticeData = (ObjectNode) visualRoot.get("children").get(1);
-
-        // Step 1: Count occurrences of all "value" attributes
-        final Map<String, Integer> valueOccurrencies = new HashMap<>();
-        countValueOccurrences(noticeData, valueOccurrencies);
-
-        Set<String> fieldsToCheck = this.tenMap.getOrDefault(noticeSubType, null);
-        if (fieldsToCheck != null) {
-            findAndRemoveGroupsWithoutOccurrencies(noticeData, targetGroupContentId, targetFieldContentId, valueOccurrencies, fieldsToCheck);
-            ((ArrayNode) visualRoot.get("children")).remove(1);
-            ((ArrayNode) visualRoot.get("children")).add(noticeData);
+    private boolean isGroupWithoutOccurrencies(final JsonNode group, final String targetFieldContentId,
+                                               final Map<String, Integer> valueOccurrencies, final Set<String> fieldsToCheck) {
+        log.debug("Found group {}", group);
+        if (!group.has("children") || !group.get("children").isArray()) {
+            return false;
         }
 
-        return visualRoot;
+        // Controllo il figlio con contentid = targetFieldContentId e recupero il valore
+        boolean fieldFound = false;
+        for (JsonNode child2 : group.get("children")) {
+            if (getNodeContentIdEquals(child2, targetFieldContentId)) {
+                log.debug("Found group 2 {}", child2);
+                fieldFound = true;
+                if (isValueWithoutOccurrencies(group, child2, valueOccurrencies, fieldsToCheck)) {
+                    return true;
+                }
+            }
+        }
+        if (!fieldFound) {
+            // Se non trovo il figlio al primo livello, cerco nel secondo
+            for (JsonNode child2 : group.get("children")) {
+                if (child2.has("children") && child2.get("children").isArray()) {
+                    for (JsonNode child3 : child2.get("children")) {
+                        if (getNodeContentIdEquals(child3, targetFieldContentId)) {
+                            log.debug("Found group 3 {}", child3);
+                            if (isValueWithoutOccurrencies(group, child3, valueOccurrencies, fieldsToCheck)) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
     }
 
-    /**
-     * Metodo che esegue la pulizia delle occorrenze dei CON
-     *
-     * @param visualRoot Modello visuale ObjectNode
-     * @return ObjectNode aggiornato
-     */
-    private ObjectNode findAndCleanCON(final ObjectNode visualRoot, final String noticeSubType) {
-        // Check UBOs
-        String targetFieldContentId = "OPT-316-Contract";
-        String targetGroupContentId = "GR-SettledContract";
-
-        log.info("Execution start {}::findAndCleanCON for group [ {} ] and field [ {} ]", NoticeCleaner.class.getSimpleName(), targetGroupContentId, targetFieldContentId);
-
-        ObjectNode noticeData = (ObjectNode) visualRoot.get("children").get(1);
-
-        // Step 1: Count occurrences of all "value" attributes
-        final Map<String, Integer> valueOccurrencies = new HashMap<>();
-        countValueOccurrences(noticeData, valueOccurrencies);
-
-        Set<String> fieldsToCheck = this.conMap.getOrDefault(noticeSubType, null);
-        if (fieldsToCheck != null) {
-            findAndRemoveGroupsWithoutOccurrencies(noticeData, targetGroupContentId, targetFieldContentId, valueOccurrencies, fieldsToCheck);
-            ((ArrayNode) visualRoot.get("children")).remove(1);
-            ((ArrayNode) visualRoot.get("children")).add(noticeData);
+    private boolean isValueWithoutOccurrencies(final JsonNode group, final JsonNode field,
+                                               final Map<String, Integer> valueOccurrencies, final Set<String> fieldsToCheck) {
+        // Trovato, recupero il valore
+        String value = JsonUtils.getTextStrict(field, "value");
+        if (value != null && valueOccurrencies.getOrDefault(value, 0) == 1 && isAllFieldsEmpty(group, fieldsToCheck)) {
+            log.debug("Found value [ {} ] with count [ {} ]", value, valueOccurrencies.get(value));
+            return true;
         }
-
-        return visualRoot;
+        return false;
     }
 
     /**
-     * Metodo che indicizza tutti gli attributi "value" in una mappa e ne conteggia le occorrenze
+     * Metodo che sottrae dalla mappa delle occorrenze tutti gli attributi "value" del nodo e dei suoi figli
      *
-     * @param node             Nodo da navigare
+     * @param node             Nodo rimosso
      * @param valueOccurrences Mappa delle occorrenze
      */
-    private void countValueOccurrences(final JsonNode node, final Map<String, Integer> valueOccurrences) {
+    private void decrementValueOccurrences(final JsonNode node, final Map<String, Integer> valueOccurrences) {
         if (node.has("value")) {
             String value = node.get("value").asText();
-            valueOccurrences.put(value, valueOccurrences.getOrDefault(value, 0) + 1);
+            valueOccurrences.computeIfPresent(value, (k, count) -> count > 1 ? count - 1 : null);
         }
 
         if (node.has("children") && node.get("children").isArray()) {
             for (JsonNode child : node.get("children")) {
-                countValueOccurrences(child, valueOccurrences);
+                decrementValueOccurrences(child, valueOccurrences);
             }
         }
     }
 
-    /**
-     * Metodo che cerca le occorrenze di un campo (es TPO-XXXX) e, se non trova utilizzi, rimuove il gruppo/nodo genitore
-     * dalle organizzazioni
-     *
-     * @param node                 Nodo da analizzare
-     * @param targetGroupContentId Id del gruppo da trovare
-     * @param targetFieldContentId Id del campo da trovare
-     * @param valueOccurrencies    Mappa delle occorrenze
-     * @param fieldsToCheck        Eventuale insieme di campi da controllare per definire un gruppo "da eliminare"
-     */
-    private void findAndRemoveGroupsWithoutOccurrencies(ObjectNode node, final String targetGroupContentId, final String targetFieldContentId, final Map<String, Integer> valueOccurrencies, final Set<String> fieldsToCheck) {
-        if (node.has("children") && node.get("children").isArray()) {
-            List<Integer> idxsToRemove = new ArrayList<>();
-            // Ciclo i figli, se tra di essi e' presente il nodo interessato (es. il gruppo contenente i touch points)
-            // allora cerco il nodo figlio (foglia) che corrisponde all'id del campo contenente il valore da verificare
-            // (es. TPO-0001)
-            for (int i = 0; i < ((ArrayNode) node.get("children")).size(); i++) {
-                JsonNode group = ((ArrayNode) node.get("children")).get(i);
-                if (getNodeContentIdEquals(group, targetGroupContentId)) {
-                    log.debug("Found group {}", group);
-                    // Controllo il figlio con contentid = targetFieldContentId e recupero il valore
-                    if (group.has("children") && group.get("children").isArray()) {
-                        boolean fieldFound = false;
-                        for (JsonNode child2 : (ArrayNode) group.get("children")) {
-                            if (getNodeContentIdEquals(child2, targetFieldContentId)) {
-                                log.debug("Found group 2 {}", child2);
-                                fieldFound = true;
-                                // Trovato, recupero il valore
-                                String value = JsonUtils.getTextStrict(child2, "value");
-                                if (value != null && valueOccurrencies.getOrDefault(value, 0) == 1 && isAllFieldsEmpty(group, fieldsToCheck)) {
-                                    log.debug("Found value [ {} ] with count [ {} ] at index [ {} ]", value, valueOccurrencies.get(value), i);
-                                    idxsToRemove.add(i);
-                                    break;
-                                }
-                            }
-                        }
-                        if (!fieldFound) {
-                            // Se non trovo il figlio al primo livello, cerco nel secondo
-                            for (JsonNode child2 : (ArrayNode) group.get("children")) {
-                                if (child2.has("children") && child2.get("children").isArray()) {
-                                    for (JsonNode child3 : (ArrayNode) child2.get("children")) {
-                                        if (getNodeContentIdEquals(child3, targetFieldContentId)) {
-                                            log.debug("Found group 3 {}", child3);
-                                            // Trovato, recupero il valore
-                                            String value = JsonUtils.getTextStrict(child3, "value");
-                                            if (value != null && valueOccurrencies.getOrDefault(value, 0) == 1 && isAllFieldsEmpty(group, fieldsToCheck)) {
-                                                log.debug("Found value [ {} ] with count [ {} ] at index [ {} ]", value, valueOccurrencies.get(value), i);
-                                                idxsToRemove.add(i);
-                                                break;
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-
-                findAndRemoveGroupsWithoutOccurrencies((ObjectNode) group, targetGroupContentId, targetFieldContentId, valueOccurrencies, fieldsToCheck);
-            }
-
-            if (!idxsToRemove.isEmpty()) {
-                // Ordine inverso per poter rimuovere correttamente i nodi dal json
-                for (int j = idxsToRemove.size() - 1; j >= 0; j--) {
-                    Integer idxToRemove = idxsToRemove.get(j);
-                    log.debug("Removing node at index [ {} ]", idxToRemove);
-                    ((ArrayNode) node.get("children")).remove(idxToRemove);
-                }
-            }
-        }
-    }
-
-
     /**
      * Utilita' per verificare l'uguaglianza dell'id
      *
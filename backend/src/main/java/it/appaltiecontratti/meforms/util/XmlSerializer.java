@@ -0,0 +1,140 @@
+package it.appaltiecontratti.meforms.util;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.w3c.dom.Document;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Result;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Serializzazione dei documenti DOM in XML, compatta o indentata. La {@link TransformerFactory} viene
+ * cercata una sola volta e le proprieta' di output di ogni modalita' sono precalcolate; per ogni
+ * documento viene creato solo il {@link Transformer}, che non e' thread-safe.
+ * </p>
+ *
+ * <p>
+ * L'XML puo' essere scritto direttamente su un {@link OutputStream} o su un {@link DataBuffer},
+ * senza passare da una String.
+ * </p>
+ */
+public class XmlSerializer {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    // Service loader eseguito una sola volta (Saxon HE se presente nel classpath)
+    private static final TransformerFactory TRANSFORMER_FACTORY = buildTransformerFactory();
+
+    private static final Properties COMPACT_OUTPUT = buildOutputProperties(false);
+    private static final Properties INDENTED_OUTPUT = buildOutputProperties(true);
+
+    private XmlSerializer() {
+        throw new AssertionError("Utility class.");
+    }
+
+    @SuppressWarnings("java:S2755")
+    private static TransformerFactory buildTransformerFactory() {
+        final TransformerFactory factory = TransformerFactory.newInstance();
+        factory.setURIResolver(null); // Do not resolve URIs.
+        return factory;
+    }
+
+    private static Properties buildOutputProperties(final boolean indented) {
+        final Properties properties = new Properties();
+        properties.setProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.toString());
+        properties.setProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+        properties.setProperty(OutputKeys.METHOD, "xml");
+        if (indented) {
+            // NOTE: indentation and the text may vary by implementation (pure JDK, Saxon HE, ...)
+            properties.setProperty(OutputKeys.INDENT, "yes");
+        }
+        return properties;
+    }
+
+    /**
+     * @param doc      The document to serialize
+     * @param out      The stream to write to, UTF-8 encoded. It is not closed
+     * @param indented Indent if true
+     */
+    public static void write(final Document doc, final OutputStream out, final boolean indented) {
+        transform(doc, new StreamResult(out), indented);
+    }
+
+    /**
+     * @param doc      The document to serialize
+     * @param indented Indent if true
+     * @return The XML as UTF-8 bytes
+     */
+    public static byte[] toBytes(final Document doc, final boolean indented) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        write(doc, out, indented);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param doc           The document to serialize
+     * @param bufferFactory The factory of the buffer, for example the one of the HTTP response
+     * @param indented      Indent if true
+     * @return The XML as UTF-8 bytes in a buffer that has to be released by the consumer
+     */
+    public static DataBuffer toDataBuffer(final Document doc, final DataBufferFactory bufferFactory,
+                                          final boolean indented) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_SIZE);
+        try (OutputStream out = buffer.asOutputStream()) {
+            write(doc, out, indented);
+            return buffer;
+        } catch (IOException | RuntimeException ex) {
+            DataBufferUtils.release(buffer);
+            throw new RuntimeException("Error writing XML to buffer", ex);
+        }
+    }
+
+    /**
+     * @param doc      The document to serialize
+     * @param indented Indent if true
+     * @return The XML as text
+     */
+    public static String asText(final Document doc, final boolean indented) {
+        final StringWriter stringWriter = new StringWriter(INITIAL_BUFFER_SIZE);
+        transform(doc, new StreamResult(stringWriter), indented);
+        return stringWriter.toString();
+    }
+
+    private static void transform(final Document doc, final Result result, final boolean indented) {
+        try {
+            final Transformer transformer = newTransformer();
+            transformer.setOutputProperties(indented ? INDENTED_OUTPUT : COMPACT_OUTPUT);
+            transformer.setURIResolver(null); // Do not resolve URIs.
+
+            // final DOMSource domSource = new DOMSource(doc); // Also works but shows a warning.
+            final DOMSource domSource = new DOMSource(doc.getDocumentElement());
+
+            transformer.transform(domSource, result);
+        } catch (Exception ex) {
+            throw new RuntimeException("Error serializing XML", ex);
+        }
+    }
+
+    private static Transformer newTransformer() throws TransformerConfigurationException {
+        // La factory non e' garantita thread-safe dalle specifiche JAXP
+        synchronized (TRANSFORMER_FACTORY) {
+            return TRANSFORMER_FACTORY.newTransformer();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.w3c.dom.*;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import java.util.ArrayList;
 import java.util.List;
@@ -129,10 +130,7 @@ public class XmlUtils {
                                                    final String xpathExpr, final String idForError) {
         Validate.notBlank(xpathExpr, "xpathExpr is blank for %s, %s", contextElem, idForError);
         try {
-            // A potential optimization would be to reuse some of the compiled xpath for some expressions.
-            // final NodeList nodeList =
-            // (NodeList) xPathInst.compile(xpathExpr).evaluate(contextElem, XPathConstants.NODESET);
-
+            // For SDK xpath expressions prefer the overload with the compiled expression (see SdkXpathExpressions).
             return (NodeList) xpathInst.evaluate(xpathExpr, contextElem, XPathConstants.NODESET);
         } catch (XPathExpressionException e) {
             log.error("Problem with xpathExpr={}, {}", xpathExpr, idForError);
@@ -140,6 +138,47 @@ public class XmlUtils {
         }
     }
 
+    /**
+     * Evaluates a compiled xpath and returns a nodelist.
+     *
+     * @param compiledXpath The compiled XPath expression (reusable)
+     * @param contextElem The XML context element in which the xpath is evaluated
+     * @param xpathExpr The text of the XPath expression, shown in case of errors
+     * @param idForError An identifier which is shown in case of errors
+     * @return The result of evaluating the XPath expression as a NodeList
+     */
+    public static NodeList evaluateXpathAsNodeList(final XPathExpression compiledXpath,
+                                                   final Object contextElem, final String xpathExpr, final String idForError) {
+        Validate.notNull(compiledXpath, "compiledXpath is null for %s, %s", xpathExpr, idForError);
+        try {
+            return (NodeList) compiledXpath.evaluate(contextElem, XPathConstants.NODESET);
+        } catch (XPathExpressionException e) {
+            log.error("Problem with xpathExpr={}, {}", xpathExpr, idForError);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Evaluates a compiled xpath and returns a list of elements. Assumes the xpath expression is about
+     * finding elements.
+     *
+     * @param compiledXpath The compiled XPath expression (reusable)
+     * @param contextElem The XML context element in which the xpath is evaluated
+     * @param xpathExpr The text of the XPath expression, shown in case of errors
+     * @param idForError An identifier which is shown in case of errors
+     * @return The result of evaluating the XPath expression as a list of elements
+     */
+    public static List<Element> evaluateXpathAsElemList(final XPathExpression compiledXpath,
+                                                        final Object contextElem, final String xpathExpr, String idForError) {
+        final NodeList elemsFound =
+                evaluateXpathAsNodeList(compiledXpath, contextElem, xpathExpr, idForError);
+        final List<Element> elemList = new ArrayList<>(elemsFound.getLength());
+        for (int i = 0; i < elemsFound.getLength(); i++) {
+            elemList.add((Element) elemsFound.item(i));
+        }
+        return elemList;
+    }
+
     /**
      * Evaluates xpath and returns a list of elements. Assumes the xpath expression is about finding
      * elements.
@@ -0,0 +1,117 @@
+package it.appaltiecontratti.meforms.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @version 1.0.0
+ * @since ott 18, 2026
+ *
+ * <p>
+ * Confronto tra il mapper Jackson costruito a ogni chiamata (comportamento precedente di
+ * {@link JsonUtils#getStandardJacksonObjectMapper()}) e il mapper condiviso con reader e node factory,
+ * sui percorsi caldi: lettura del JSON di una notice (NoticeCleaner) e report degli errori XSD
+ * (NoticeValidationServiceImpl, un nodo per errore).
+ * </p>
+ *
+ * <p>
+ * Non e' un test: va eseguito a mano, con il profiler "gc" per l'allocazione per operazione.
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main JsonUtilsBenchmark -prof gc
+ * </pre>
+ * Confrontare "score" (us/op, CPU) e "gc.alloc.rate.norm" (B/op) delle coppie perCallMapper / shared.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonUtilsBenchmark {
+
+    // Numero di errori XSD di un report di esempio
+    private static final int XSD_ERRORS = 50;
+
+    private String noticeJson;
+
+    @Setup
+    public void setup() {
+        final StringBuilder json = new StringBuilder("{\"visualRoot\":{\"contentId\":\"the_visual_root\",\"children\":[");
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"contentId\":\"BT-").append(i).append("-Lot\",\"contentType\":\"field\",\"value\":\"value ")
+                    .append(i).append("\",\"contentCount\":\"1\",\"contentParentCount\":\"1\"}");
+        }
+        noticeJson = json.append("]}}").toString();
+    }
+
+    @Benchmark
+    public JsonNode readNoticePerCallMapper() throws IOException {
+        return buildMapperAsBefore().readTree(noticeJson);
+    }
+
+    @Benchmark
+    public JsonNode readNoticeShared() throws IOException {
+        return JsonUtils.getJsonNodeReader().readTree(noticeJson);
+    }
+
+    @Benchmark
+    public ObjectNode xsdReportPerCallMapper() {
+        final ObjectNode xsdReport = buildMapperAsBefore().createObjectNode();
+        final ArrayNode xsdErrors = xsdReport.putArray("xsdErrors");
+        for (int i = 0; i < XSD_ERRORS; i++) {
+            final ObjectNode xsdError = buildMapperAsBefore().createObjectNode();
+            fillXsdError(xsdError, i);
+            xsdErrors.add(xsdError);
+        }
+        return xsdReport;
+    }
+
+    @Benchmark
+    public ObjectNode xsdReportShared() {
+        final ObjectNode xsdReport = JsonUtils.createObjectNode();
+        final ArrayNode xsdErrors = xsdReport.putArray("xsdErrors");
+        for (int i = 0; i < XSD_ERRORS; i++) {
+            fillXsdError(xsdErrors.addObject(), i);
+        }
+        return xsdReport;
+    }
+
+    private static void fillXsdError(final ObjectNode xsdError, final int i) {
+        xsdError.put("lineNumber", i);
+        xsdError.put("columnNumber", 1);
+        xsdError.put("message", "cvc-complex-type.2.4.a: Invalid content was found starting with element " + i);
+    }
+
+    // Stessa configurazione di JsonUtils, costruita a ogni chiamata come prima della condivisione
+    private static ObjectMapper buildMapperAsBefore() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .serializationInclusion(JsonInclude.Include.NON_EMPTY)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}